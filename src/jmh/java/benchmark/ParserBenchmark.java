@@ -0,0 +1,139 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parseFloat and parseDouble per input category, with the JDK parsers as baselines.
+ * Run with ./gradlew jmh.  The GC profiler is enabled in build.gradle, so gc.alloc.rate.norm
+ * shows the bytes allocated per parse.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+  private static final int SIZE = 1024;
+  // JMH does not allow benchmarks in the default package, and classes in a named package cannot
+  // refer to Parser directly.  Constant method handles are inlined by the JIT like direct calls.
+  private static final MethodHandle NEW_PARSER;
+  private static final MethodHandle PARSE_DOUBLE;
+  private static final MethodHandle PARSE_FLOAT;
+
+  static {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      Class<?> parserClass = Class.forName("Parser");
+      NEW_PARSER = lookup.findConstructor(parserClass, MethodType.methodType(void.class))
+          .asType(MethodType.methodType(Object.class));
+      PARSE_DOUBLE = lookup.findVirtual(parserClass, "parseDouble", MethodType.methodType(double.class, String.class))
+          .asType(MethodType.methodType(double.class, Object.class, String.class));
+      PARSE_FLOAT = lookup.findVirtual(parserClass, "parseFloat", MethodType.methodType(float.class, String.class))
+          .asType(MethodType.methodType(float.class, Object.class, String.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  @Param({"SHORT", "ROUND_TRIP", "LONG", "SUBNORMAL", "NEAR_OVERFLOW", "HEX"})
+  public Corpus corpus;
+
+  private Object parser;
+  private String[] inputs;
+
+  public enum Corpus {
+    // Prices and sensor readings, e.g. 1234.56
+    SHORT {
+      @Override String next(Random random) {
+        return random.nextInt(100000) + "." + random.nextInt(100);
+      }
+    },
+    // Shortest round-trip output of random doubles, up to 17 digits
+    ROUND_TRIP {
+      @Override String next(Random random) {
+        return Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+      }
+    },
+    // Just above the halfway point between two small doubles, like the long inputs in ParserTest.
+    // These are 130 to 270 digits long, and the trailing 1 must be read to round up, so every
+    // input takes the slow path.
+    LONG {
+      @Override String next(Random random) {
+        double d = Math.scalb(1 + random.nextDouble(), -100 - random.nextInt(200));
+        java.math.BigDecimal halfway = new java.math.BigDecimal(d).add(new java.math.BigDecimal(Math.nextUp(d)))
+            .divide(java.math.BigDecimal.valueOf(2));
+        return halfway.unscaledValue() + "1e" + -(halfway.scale() + 1);
+      }
+    },
+    SUBNORMAL {
+      @Override String next(Random random) {
+        return Double.toString(Double.MIN_NORMAL * random.nextDouble());
+      }
+    },
+    NEAR_OVERFLOW {
+      @Override String next(Random random) {
+        return Double.toString(Double.MAX_VALUE * (0.5 + random.nextDouble() / 2));
+      }
+    },
+    HEX {
+      @Override String next(Random random) {
+        return Double.toHexString(random.nextDouble() * Math.pow(2, random.nextInt(200) - 100));
+      }
+    };
+
+    abstract String next(Random random);
+  }
+
+  @Setup
+  public void setUp() throws Throwable {
+    parser = (Object) NEW_PARSER.invokeExact();
+    Random random = new Random(42);
+    inputs = new String[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      inputs[i] = corpus.next(random);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void parseDouble(Blackhole blackhole) throws Throwable {
+    for (String s : inputs) blackhole.consume((double) PARSE_DOUBLE.invokeExact(parser, s));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void parseFloat(Blackhole blackhole) throws Throwable {
+    for (String s : inputs) blackhole.consume((float) PARSE_FLOAT.invokeExact(parser, s));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void jdkParseDouble(Blackhole blackhole) {
+    for (String s : inputs) blackhole.consume(Double.parseDouble(s));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void jdkParseFloat(Blackhole blackhole) {
+    for (String s : inputs) blackhole.consume(Float.parseFloat(s));
+  }
+}
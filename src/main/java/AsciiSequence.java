@@ -0,0 +1,33 @@
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A reusable {@link CharSequence} view of an ASCII byte array, so that the array can be parsed
+ * without decoding it into a String.
+ */
+final class AsciiSequence implements CharSequence {
+  private byte[] bytes;
+
+  void reset(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  byte[] bytes() {
+    return bytes;
+  }
+
+  @Override public int length() {
+    return bytes.length;
+  }
+
+  @Override public char charAt(int index) {
+    return (char) (bytes[index] & 0xFF);
+  }
+
+  @Override public CharSequence subSequence(int start, int end) {
+    return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+  }
+
+  @Override public String toString() {
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+}
@@ -1,88 +1,93 @@
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Objects;
+import java.util.Arrays;
 
 public class BigBinary implements BigNumber {
-  // The maximum value of p, e.g. 0x1.0p+100000 or 0x1.0p-100000
+  // Values beyond 2^+-MAX_P are zero or infinity for both float and double, so larger exponents are clamped
   private static final int MAX_P = 100000;
-  private final LinkedList<Integer> digits = new LinkedList<>(); // Digits from right to left
+  // Bits from right to left.  Only words[0] to words[length - 1] are in use.
+  // The lowest bit is always 1 unless the number is zero, so that each value has a single representation.
+  private long[] words;
+  private int length;
   private boolean negative;
-  private int dp; // Location of decimal point from right, e.g. dp = 4 for 1.0001
+  private int dp; // Location of binary point from right, e.g. dp = 4 for 1.0001 and dp = -1 for 10
 
   public BigBinary(int n) {
-    if (n < 0) {
+    long v = n;
+    if (v < 0) {
       negative = true;
-      n *= -1;
-    }
-    while (n > 0) {
-      digits.add(n % 2);
-      n /= 2;
+      v *= -1;
     }
+    words = new long[] {v};
+    length = 1;
     normalize();
   }
 
   public BigBinary(String s) {
-    if (s == null || s.isEmpty()) {
+    this(s, 0, s == null ? 0 : s.length());
+  }
+
+  /**
+   * Parses s[from, to) in place.  Underscores are ignored.
+   */
+  public BigBinary(CharSequence s, int from, int to) {
+    this(s, lexHex(s, from, to));
+  }
+
+  private static Lexer lexHex(CharSequence s, int from, int to) {
+    if (s == null || from >= to) {
       throw new IllegalArgumentException("Cannot parse an empty string");
     }
-    if (s.startsWith("-")) {
-      negative = true;
-      s = s.substring(1);
-    }
-    if (s.startsWith("+")) {
-      s = s.substring(1);
+    Lexer lexer = new Lexer();
+    lexer.lexOrThrow(s, from, to);
+    if (lexer.kind != Lexer.HEX) {
+      throw new IllegalArgumentException("The string must start with 0x: " + s.subSequence(from, to));
     }
-    if (!s.startsWith("0x")) {
-      throw new IllegalArgumentException("The string must start with 0x: " + s);
-    }
-    s = s.substring(2);
-    s = s.replace("_", "");
-    dp = -1;
-    int exp = 0;
-    for (int i = 0; i < s.length(); i++) {
-      char ch = s.charAt(i);
-      int b = convertHexToInt(ch);
-      if (ch == '.') {
-        if (dp >= 0) {
-          throw new IllegalArgumentException("Unexpected decimal point at "
-              + i + ". There are more than one decimal points: " + s);
-        }
-        dp = i * 4;
-      } else if (b >= 0) {
-        digits.add(b >> 3 & 1);
-        digits.add(b >> 2 & 1);
-        digits.add(b >> 1 & 1);
-        digits.add(b & 1);
-      } else if (ch == 'p' || ch == 'P') {
-        exp = parseExp(s.substring(i + 1));
-        break;
-      } else {
-        throw new IllegalArgumentException("Unexpected char at " + i + ": " + s);
+    return lexer;
+  }
+
+  /**
+   * Converts the hexadecimal literal in s that lexer has just classified.
+   */
+  BigBinary(CharSequence s, Lexer lexer) {
+    negative = lexer.negative;
+    // First pass: count the hex digits
+    int digitCount = 0;
+    int fractionDigits = 0;
+    int digitsFrom = lexer.integerFrom;
+    int digitsEnd = lexer.fractionTo;
+    for (int i = digitsFrom; i < digitsEnd; i++) {
+      if (convertHexToInt(s.charAt(i)) >= 0) {
+        digitCount++;
+        if (lexer.point >= 0 && i > lexer.point) fractionDigits++;
       }
     }
-    if (dp < 0) {
-      dp = digits.size();
+    long exp = parseExp(s, lexer.exponentFrom, lexer.exponentTo);
+    // Second pass: fill the bits
+    words = new long[(4 * digitCount + 63) / 64];
+    length = words.length;
+    int r = 4 * digitCount;
+    for (int i = digitsFrom; i < digitsEnd; i++) {
+      int b = convertHexToInt(s.charAt(i));
+      if (b >= 0) {
+        r -= 4;
+        words[r / 64] |= (long) b << (r % 64);
+      }
     }
-    Collections.reverse(digits);
-    dp = digits.size() - dp;
-    dp -= exp;
+    // Keep the value beyond 2^+-MAX_P when clamping.  The bits are less than 2^(4 * digitCount).
+    dp = (int) Math.max(-MAX_P, Math.min(MAX_P + 4L * digitCount, 4L * fractionDigits - exp));
     normalize();
   }
 
-  private static int parseExp(String s) {
-    int exp = 0;
+  // Parses the exponent in s[from, to) that the lexer has accepted
+  private static long parseExp(CharSequence s, int from, int to) {
+    long exp = 0;
     int psign = 1;
-    for (int i = 0; i < s.length(); i++) {
+    for (int i = from; i < to; i++) {
       var c = s.charAt(i);
-      if (c == '+') continue;
       if (c == '-') {
         psign = -1;
       } else if (c >= '0' && c <= '9') {
-        // TODO: This is a temporary fix because it does not take dp into account
-        if (exp < MAX_P) exp = 10 * exp + (c - '0');
-      } else {
-        throw new IllegalArgumentException("Unexpected char [" + c + "] at index " + i + ": " + s);
+        // Saturate.  The exponent is clamped after the digits are counted.
+        if (exp < Integer.MAX_VALUE) exp = 10 * exp + (c - '0');
       }
     }
     exp *= psign;
@@ -94,34 +99,69 @@ public class BigBinary implements BigNumber {
   }
 
   @Override public void multiplyByTwo() {
-    dp--;
-    normalize();
+    if (length > 0) dp--;
   }
 
   @Override public void divideByTwo() {
-    dp++;
-    normalize();
+    if (length > 0) dp++;
+  }
+
+  @Override public void scaleByPowerOfTwo(int k) {
+    if (length > 0) dp -= k;
+  }
+
+  @Override public int binaryExponentEstimate() {
+    // This is exact
+    return bitLength() - dp - 1;
+  }
+
+  @Override public long fractionBits(int n) {
+    int lo = dp - n - 1;
+    // The lowest bit is always 1, so there is a 1 after the round bit if and only if lo > 0
+    long sticky = lo > 0 && length > 0 ? 1 : 0;
+    return getBits(lo, n + 1) << 1 | sticky;
   }
 
   @Override public boolean isLessThanOne() {
-    return dp == digits.size() - 1 && digits.getLast() == 0;
+    return bitLength() <= dp;
   }
 
   @Override public boolean isEqualToOrGreaterThanTwo() {
-    if (dp != digits.size() - 1) return true; // >= 10
-    return digits.getLast() > 1;
+    return bitLength() - dp >= 2;
   }
 
   @Override public void discardNumberPart() {
-    while (dp < digits.size() - 1) digits.removeLast();
-    digits.set(digits.size() - 1, 0);
+    if (dp <= 0) {
+      length = 0;
+    } else if (dp < 64 * length) {
+      length = dp / 64 + 1;
+      words[length - 1] &= (1L << (dp % 64)) - 1;
+    }
+    normalize();
   }
 
   @Override public boolean isZero() {
-    return digits.size() == 1 && digits.getFirst() == 0;
+    return length == 0;
   }
 
-  private int convertHexToInt(char ch) {
+  private int bitLength() {
+    if (length == 0) return 0;
+    return 64 * length - Long.numberOfLeadingZeros(words[length - 1]);
+  }
+
+  // Returns count (< 64) bits starting from the index lo
+  private long getBits(int lo, int count) {
+    if (lo < 0) {
+      return count + lo > 0 ? getBits(0, count + lo) << -lo : 0;
+    }
+    int w = lo / 64;
+    int b = lo % 64;
+    long bits = w < length ? words[w] >>> b : 0;
+    if (b > 0 && w + 1 < length) bits |= words[w + 1] << (64 - b);
+    return bits & ((1L << count) - 1);
+  }
+
+  private static int convertHexToInt(char ch) {
     if (ch >= '0' && ch <= '9') {
       return ch - '0';
     } else if (ch >= 'a' && ch <= 'f') {
@@ -133,28 +173,37 @@ public class BigBinary implements BigNumber {
   }
 
   private void normalize() {
-    while (dp >= digits.size()) {
-      digits.addLast(0);
-    }
-    while (dp < 0) {
-      digits.addFirst(0);
-      dp++;
+    while (length > 0 && words[length - 1] == 0) {
+      length--;
     }
-    while (digits.getFirst() == 0 && dp > 0) {
-      digits.removeFirst();
-      dp--;
+    if (length == 0) {
+      dp = 0;
+      return;
     }
-    while (digits.getLast() == 0 && dp < digits.size() - 1) {
-      digits.removeLast();
+    // Shift out the trailing zeros
+    int wordShift = 0;
+    while (words[wordShift] == 0) wordShift++;
+    int bitShift = Long.numberOfTrailingZeros(words[wordShift]);
+    if (wordShift == 0 && bitShift == 0) return;
+    for (int i = 0; i < length - wordShift; i++) {
+      long w = words[i + wordShift] >>> bitShift;
+      if (bitShift > 0 && i + wordShift + 1 < length) {
+        w |= words[i + wordShift + 1] << (64 - bitShift);
+      }
+      words[i] = w;
     }
+    length -= wordShift;
+    if (words[length - 1] == 0) length--;
+    dp -= 64 * wordShift + bitShift;
   }
 
   @Override public String toString() {
     StringBuilder sb = new StringBuilder();
-    Iterator<Integer> iter = digits.descendingIterator();
-    for (int i = digits.size() - 1; iter.hasNext() && i >= 0; i--) {
-      sb.append(iter.next());
-      if (i == dp) sb.append('.');
+    // k is the power of two of each digit
+    for (int k = Math.max(bitLength() - dp - 1, 0); k >= Math.min(-dp, 0); k--) {
+      int i = k + dp;
+      sb.append(i >= 0 && i < 64 * length ? words[i / 64] >>> (i % 64) & 1 : 0);
+      if (k == 0) sb.append('.');
     }
     return sb.toString();
   }
@@ -165,10 +214,12 @@ public class BigBinary implements BigNumber {
     BigBinary that = (BigBinary) o;
     return negative == that.negative &&
         dp == that.dp &&
-        digits.equals(that.digits);
+        Arrays.equals(words, 0, length, that.words, 0, that.length);
   }
 
   @Override public int hashCode() {
-    return Objects.hash(digits, negative, dp);
+    int result = Boolean.hashCode(negative);
+    for (int i = 0; i < length; i++) result = 31 * result + Long.hashCode(words[i]);
+    return 31 * result + dp;
   }
 }
@@ -1,80 +1,138 @@
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.ListIterator;
-import java.util.Objects;
+import java.util.Arrays;
 
 public class BigDecimal implements BigNumber {
-  // The maximum value of e, e.g. 1e+100000 or 1e-100000
+  // Values beyond 10^+-MAX_E are zero or infinity for both float and double, so larger exponents are clamped
   private static final int MAX_E = 100000;
-  private final LinkedList<Integer> digits = new LinkedList<>(); // Digits from right to left
+  // The maximum number of significant digits to keep.  A halfway point between two doubles has at
+  // most 767 significant digits, so the digits after these can only affect the rounding by whether
+  // they are all zeros or not.
+  static final int MAX_DIGITS = 800;
+  // Each limb holds 9 decimal digits
+  private static final int BASE = 1_000_000_000;
+  private static final int LIMB_DIGITS = 9;
+  private static final int[] POWERS_OF_TEN = {
+      1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000,
+  };
+  private int[] limbs; // Limbs from right to left in base 10^9.  Only limbs[start] to limbs[end - 1] are in use.
+  private int start;
+  private int end;
   private boolean negative;
-  private int dp; // Location of decimal point from right, e.g. dp = 4 for 3.1415
+  private int dp; // Number of limbs after the decimal point, e.g. dp = 1 for 3.1415
 
   public BigDecimal(int n) {
-    if (n < 0) {
+    long v = n;
+    if (v < 0) {
       negative = true;
-      n *= -1;
+      v *= -1;
     }
+    limbs = new int[4];
     do {
-      digits.add(n % 10);
-      n /= 10;
-    } while (n > 0);
+      limbs[end++] = (int) (v % BASE);
+      v /= BASE;
+    } while (v > 0);
   }
 
   public BigDecimal(String s) {
-    if (s == null || s.isEmpty()) {
+    this(s, 0, s == null ? 0 : s.length());
+  }
+
+  /**
+   * Parses s[from, to) in place.  Underscores are ignored.
+   */
+  public BigDecimal(CharSequence s, int from, int to) {
+    this(s, lexDecimal(s, from, to));
+  }
+
+  private static Lexer lexDecimal(CharSequence s, int from, int to) {
+    if (s == null || from >= to) {
       throw new IllegalArgumentException("Cannot parse an empty string");
     }
-    if (s.startsWith("-")) {
-      s = s.substring(1);
-      negative = true;
+    Lexer lexer = new Lexer();
+    lexer.lexOrThrow(s, from, to);
+    if (lexer.kind != Lexer.DECIMAL) {
+      throw new IllegalArgumentException("Not a decimal number: " + s.subSequence(from, to));
     }
-    if (s.startsWith("+")) {
-      s = s.substring(1);
-    }
-    s = s.replace("_", "");
-    dp = -1;
-    int exp = 0;
-    for (int i = 0; i < s.length(); i++) {
+    return lexer;
+  }
+
+  /**
+   * Converts the decimal literal in s that lexer has just classified.
+   */
+  BigDecimal(CharSequence s, Lexer lexer) {
+    negative = lexer.negative;
+    // First pass: count the digits
+    boolean leadingZero = true;
+    int digitCount = 0; // Significant digits to keep
+    int fractionDigits = 0; // Digits after the decimal point, excluding the dropped ones
+    int droppedDigits = 0; // Dropped digits before the decimal point
+    boolean sticky = false; // True if any dropped digit is nonzero
+    int digitsFrom = lexer.integerFrom;
+    int digitsEnd = lexer.fractionTo;
+    for (int i = digitsFrom; i < digitsEnd; i++) {
       char ch = s.charAt(i);
-      if (ch == '.') {
-        if (dp >= 0) {
-          throw new IllegalArgumentException("Unexpected decimal point at "
-              + i + ". There are more than one decimal points: " + s);
-        }
-        dp = i;
-      } else if (ch >= '0' && ch <= '9') {
-        digits.add(ch - '0');
-      } else if (ch == 'e' || ch == 'E') {
-        exp = parseExp(s.substring(i + 1));
-        break;
+      if (ch < '0' || ch > '9') continue; // The point or an underscore
+      boolean fraction = lexer.point >= 0 && i > lexer.point;
+      if (leadingZero && ch == '0') {
+        if (fraction) fractionDigits++;
+      } else if (digitCount < MAX_DIGITS) {
+        leadingZero = false;
+        digitCount++;
+        if (fraction) fractionDigits++;
       } else {
-        throw new IllegalArgumentException("Unexpected char at " + i + ": " + s);
+        if (!fraction) droppedDigits++;
+        if (ch != '0') sticky = true;
+      }
+    }
+    long exp = parseExp(s, lexer.exponentFrom, lexer.exponentTo);
+    // The value is (the digits) * 10^e
+    long e = exp + droppedDigits - fractionDigits;
+    // Keep the value beyond 10^+-MAX_E when clamping.  The digits are less than 10^digitCount.
+    e = Math.max(-MAX_E - digitCount, Math.min(MAX_E, e));
+    if (sticky) {
+      // Stand in for the dropped digits with a single 1 after the kept ones.  No halfway point
+      // between two doubles lies between the kept digits and the actual value, so the rounding
+      // does not change.
+      e--;
+    }
+    // Pad zeros on the right so that the decimal point falls on a limb boundary
+    int zeros;
+    if (e >= 0) {
+      dp = 0;
+      zeros = (int) e;
+    } else {
+      dp = (int) ((-e + LIMB_DIGITS - 1) / LIMB_DIGITS);
+      zeros = (int) (dp * LIMB_DIGITS + e);
+    }
+    int length = digitCount + (sticky ? 1 : 0) + zeros;
+    limbs = new int[Math.max(1, (length + LIMB_DIGITS - 1) / LIMB_DIGITS)];
+    end = limbs.length;
+    // Second pass: fill the limbs
+    int r = length;
+    for (int i = digitsFrom; i < digitsEnd && r > length - digitCount; i++) {
+      char ch = s.charAt(i);
+      if (ch >= '0' && ch <= '9' && (r < length || ch != '0')) {
+        r--;
+        limbs[r / LIMB_DIGITS] += (ch - '0') * POWERS_OF_TEN[r % LIMB_DIGITS];
       }
     }
-    if (dp < 0) {
-      dp = digits.size();
+    if (sticky) {
+      r--;
+      limbs[r / LIMB_DIGITS] += POWERS_OF_TEN[r % LIMB_DIGITS];
     }
-    Collections.reverse(digits);
-    dp = digits.size() - dp;
-    dp -= exp;
     normalize();
   }
 
-  private static int parseExp(String s) {
-    int exp = 0;
+  // Parses the exponent in s[from, to) that the lexer has accepted
+  private static long parseExp(CharSequence s, int from, int to) {
+    long exp = 0;
     int esign = 1;
-    for (int i = 0; i < s.length(); i++) {
+    for (int i = from; i < to; i++) {
       var c = s.charAt(i);
-      if (c == '+') continue;
       if (c == '-') {
         esign = -1;
       } else if (c >= '0' && c <= '9') {
-        // TODO: This is a temporary fix because it does not take dp into account
-        if (exp < MAX_E) exp = 10 * exp + (c - '0');
-      } else {
-        throw new IllegalArgumentException("Unexpected char [" + c + "] at index " + i + ": " + s);
+        // Saturate.  The exponent is clamped after the digits are counted.
+        if (exp < Integer.MAX_VALUE) exp = 10 * exp + (c - '0');
       }
     }
     exp *= esign;
@@ -87,74 +145,157 @@ public class BigDecimal implements BigNumber {
 
   @Override public void multiplyByTwo() {
     int carry = 0;
-    ListIterator<Integer> iter = digits.listIterator();
-    while (iter.hasNext()) {
-      int n = iter.next() * 2 + carry;
-      iter.set(n % 10);
-      carry = n / 10;
+    for (int i = start; i < end; i++) {
+      int n = limbs[i] * 2 + carry;
+      carry = n >= BASE ? 1 : 0;
+      limbs[i] = n - carry * BASE;
+    }
+    if (carry > 0) {
+      ensureCapacity(0, 1);
+      limbs[end++] = carry;
     }
-    if (carry > 0) digits.add(carry);
     normalize();
   }
 
   @Override public void divideByTwo() {
-    Collections.reverse(digits);
     int carry = 0;
-    ListIterator<Integer> iter = digits.listIterator();
-    while (iter.hasNext()) {
-      int n = iter.next() + carry;
-      iter.set(n / 2);
-      carry = n % 2 * 10;
+    for (int i = end - 1; i >= start; i--) {
+      int n = limbs[i];
+      limbs[i] = (n >> 1) + carry * (BASE / 2);
+      carry = n & 1;
     }
     if (carry > 0) {
-      digits.add(carry / 2);
+      ensureCapacity(1, 0);
+      limbs[--start] = BASE / 2;
       dp++;
     }
-    Collections.reverse(digits);
     normalize();
   }
 
+  @Override public void scaleByPowerOfTwo(int k) {
+    // A limb shifted by up to 29 bits plus the carry still fits in a long
+    while (k > 0) {
+      int shift = Math.min(k, 29);
+      long carry = 0;
+      for (int i = start; i < end; i++) {
+        long n = ((long) limbs[i] << shift) + carry;
+        limbs[i] = (int) (n % BASE);
+        carry = n / BASE;
+      }
+      if (carry > 0) {
+        ensureCapacity(0, 1);
+        limbs[end++] = (int) carry;
+      }
+      k -= shift;
+    }
+    while (k < 0) {
+      int shift = Math.min(-k, 29);
+      long mask = (1L << shift) - 1;
+      long carry = 0;
+      for (int i = end - 1; i >= start; i--) {
+        long n = carry * BASE + limbs[i];
+        limbs[i] = (int) (n >> shift);
+        carry = n & mask;
+      }
+      // Dividing by 2^shift needs up to shift more decimal digits
+      while (carry > 0) {
+        long n = carry * BASE;
+        ensureCapacity(1, 0);
+        limbs[--start] = (int) (n >> shift);
+        carry = n & mask;
+        dp++;
+      }
+      k += shift;
+    }
+    normalize();
+  }
+
+  @Override public int binaryExponentEstimate() {
+    int top = end - 1;
+    while (top > start && limbs[top] == 0) top--;
+    double v = limbs[top];
+    if (top > start) v += limbs[top - 1] / (double) BASE;
+    // log2(10^9) = 29.897352853986263
+    return (int) Math.floor(Math.log(v) / Math.log(2) + 29.897352853986263 * (top - start - dp));
+  }
+
+  @Override public long fractionBits(int n) {
+    // Multiply the fractional part by 2^(n + 1) = m1 * 10^9 + m0 in a single pass without
+    // storing the product.  The integer part of the product holds the bits.
+    long m = 1L << (n + 1);
+    long m1 = m / BASE;
+    long m0 = m % BASE;
+    long carry = 0;
+    long previous = 0;
+    long sticky = 0;
+    for (int i = start; i < start + dp; i++) {
+      long x = limbs[i] * m0 + previous * m1 + carry;
+      if (x % BASE != 0) sticky = 1;
+      carry = x / BASE;
+      previous = limbs[i];
+    }
+    return (previous * m1 + carry) << 1 | sticky;
+  }
+
   @Override public boolean isLessThanOne() {
-    return (dp == digits.size() - 1 && digits.getLast() == 0);
+    return end - start == dp + 1 && limbs[end - 1] == 0;
   }
 
   @Override public boolean isEqualToOrGreaterThanTwo() {
-    if (dp != digits.size() - 1) return true; // >= 10
-    return digits.getLast() > 1;
+    if (end - start != dp + 1) return true; // >= 10^9
+    return limbs[end - 1] > 1;
   }
 
   @Override public void discardNumberPart() {
-    while (dp < digits.size() - 1) digits.removeLast();
-    digits.set(digits.size() - 1, 0);
+    end = start + dp + 1;
+    limbs[end - 1] = 0;
   }
 
   @Override public boolean isZero() {
-    return digits.size() == 1 && digits.getFirst() == 0;
+    return end - start == 1 && limbs[start] == 0;
+  }
+
+  // Makes room for at least low more limbs below start and high more limbs from end
+  private void ensureCapacity(int low, int high) {
+    if (start >= low && end + high <= limbs.length) return;
+    int size = end - start;
+    int[] newLimbs = new int[2 * size + low + high + 2];
+    int newStart = low + (newLimbs.length - size - low - high) / 2;
+    System.arraycopy(limbs, start, newLimbs, newStart, size);
+    limbs = newLimbs;
+    start = newStart;
+    end = newStart + size;
   }
 
   private void normalize() {
-    while (dp >= digits.size()) {
-      digits.addLast(0);
-    }
-    while (dp < 0) {
-      digits.addFirst(0);
-      dp++;
+    if (end - start <= dp) {
+      ensureCapacity(0, dp + 1 - (end - start));
+      while (end - start <= dp) limbs[end++] = 0;
     }
-    while (digits.getFirst() == 0 && dp > 0) {
-      digits.removeFirst();
+    while (limbs[start] == 0 && dp > 0) {
+      start++;
       dp--;
     }
-    while (digits.getLast() == 0 && dp < digits.size() - 1) {
-      digits.removeLast();
+    while (limbs[end - 1] == 0 && end - start > dp + 1) {
+      end--;
     }
   }
 
   @Override public String toString() {
     StringBuilder sb = new StringBuilder();
-    Iterator<Integer> iter = digits.descendingIterator();
-    for (int i = digits.size() - 1; iter.hasNext() && i >= 0; i--) {
-      sb.append(iter.next());
-      if (i == dp) sb.append('.');
+    sb.append(limbs[end - 1]);
+    for (int i = end - 2; i >= start; i--) {
+      if (i == start + dp - 1) sb.append('.');
+      String limb = Integer.toString(limbs[i]);
+      for (int j = limb.length(); j < LIMB_DIGITS; j++) sb.append('0');
+      sb.append(limb);
+    }
+    if (dp == 0) {
+      sb.append('.');
+    } else {
+      int length = sb.length();
+      while (sb.charAt(length - 1) == '0') length--;
+      sb.setLength(length);
     }
     return sb.toString();
   }
@@ -165,10 +306,12 @@ public class BigDecimal implements BigNumber {
     BigDecimal that = (BigDecimal) o;
     if (negative != that.negative) return false;
     if (dp != that.dp) return false;
-    return digits.equals(that.digits);
+    return Arrays.equals(limbs, start, end, that.limbs, that.start, that.end);
   }
 
   @Override public int hashCode() {
-    return Objects.hash(digits, dp);
+    int result = 1;
+    for (int i = start; i < end; i++) result = 31 * result + limbs[i];
+    return 31 * result + dp;
   }
 }
@@ -0,0 +1,96 @@
+import java.util.Arrays;
+
+/**
+ * A small mutable unsigned big integer for {@link DigitComparison}.  The limbs are reused, so
+ * repeated conversions do not allocate once the array has grown large enough.
+ */
+final class BigInt implements Comparable<BigInt> {
+  // The largest power of five below 2^63
+  private static final long FIVE_TO_27 = 7_450_580_596_923_828_125L;
+  private static final long[] POWERS_OF_FIVE = new long[27];
+  private int[] limbs = new int[16]; // Base 2^32 from right to left.  Only limbs[0] to limbs[length - 1] are in use.
+  private int length;
+
+  static {
+    POWERS_OF_FIVE[0] = 1;
+    for (int i = 1; i < POWERS_OF_FIVE.length; i++) POWERS_OF_FIVE[i] = 5 * POWERS_OF_FIVE[i - 1];
+  }
+
+  void set(long v) {
+    limbs[0] = (int) v;
+    limbs[1] = (int) (v >>> 32);
+    length = limbs[1] != 0 ? 2 : limbs[0] != 0 ? 1 : 0;
+  }
+
+  void set(BigInt other) {
+    ensureCapacity(other.length);
+    System.arraycopy(other.limbs, 0, limbs, 0, other.length);
+    length = other.length;
+  }
+
+  /**
+   * this = this * multiplier + addend, where both are non-negative.
+   */
+  void multiplyAdd(long multiplier, long addend) {
+    long carry = addend;
+    for (int i = 0; i < length; i++) {
+      long limb = limbs[i] & 0xFFFFFFFFL;
+      // limb * multiplier + carry < 2^96
+      long lo = limb * multiplier;
+      long hi = Math.multiplyHigh(limb, multiplier);
+      long sum = lo + carry;
+      if (Long.compareUnsigned(sum, lo) < 0) hi++;
+      limbs[i] = (int) sum;
+      carry = hi << 32 | sum >>> 32;
+    }
+    ensureCapacity(length + 2);
+    while (carry != 0) {
+      limbs[length++] = (int) carry;
+      carry >>>= 32;
+    }
+  }
+
+  void multiplyByPowerOfFive(int k) {
+    for (; k >= 27; k -= 27) multiplyAdd(FIVE_TO_27, 0);
+    if (k > 0) multiplyAdd(POWERS_OF_FIVE[k], 0);
+  }
+
+  void shiftLeft(int n) {
+    if (length == 0 || n == 0) return;
+    int words = n / 32;
+    int bits = n % 32;
+    ensureCapacity(length + words + 1);
+    limbs[length] = 0;
+    for (int i = length; i >= 0; i--) {
+      int v = limbs[i] << bits;
+      if (bits > 0 && i > 0) v |= limbs[i - 1] >>> (32 - bits);
+      limbs[i + words] = v;
+    }
+    Arrays.fill(limbs, 0, words, 0);
+    length += words + 1;
+    if (limbs[length - 1] == 0) length--;
+  }
+
+  @Override public int compareTo(BigInt other) {
+    if (length != other.length) return Integer.compare(length, other.length);
+    for (int i = length - 1; i >= 0; i--) {
+      if (limbs[i] != other.limbs[i]) return Integer.compareUnsigned(limbs[i], other.limbs[i]);
+    }
+    return 0;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > limbs.length) limbs = Arrays.copyOf(limbs, Math.max(capacity, 2 * limbs.length));
+  }
+
+  @Override public String toString() {
+    StringBuilder sb = new StringBuilder("0x");
+    if (length == 0) sb.append('0');
+    for (int i = length - 1; i >= 0; i--) {
+      String limb = Integer.toHexString(limbs[i]);
+      if (i < length - 1) sb.append("0".repeat(8 - limb.length()));
+      sb.append(limb);
+    }
+    return sb.toString();
+  }
+}
@@ -1,9 +1,29 @@
 public interface BigNumber {
   static BigNumber parse(String s) {
-    if (s.startsWith("0x") || s.startsWith("-0x")) {
-      return new BigBinary(s);
-    } else {
-      return new BigDecimal(s);
+    return parse(s, 0, s.length());
+  }
+
+  /**
+   * Parses s[from, to) into a {@link BigBinary} if it is hexadecimal and a {@link BigDecimal} otherwise.
+   * NaN and Infinity are rejected.
+   */
+  static BigNumber parse(CharSequence s, int from, int to) {
+    Lexer lexer = new Lexer();
+    lexer.lexOrThrow(s, from, to);
+    return parse(s, lexer);
+  }
+
+  /**
+   * Converts the literal in s that lexer has just classified.
+   */
+  static BigNumber parse(CharSequence s, Lexer lexer) {
+    switch (lexer.kind) {
+      case Lexer.HEX:
+        return new BigBinary(s, lexer);
+      case Lexer.DECIMAL:
+        return new BigDecimal(s, lexer);
+      default:
+        throw new IllegalArgumentException("Not a finite number: " + s.subSequence(lexer.start, lexer.end));
     }
   }
 
@@ -13,6 +33,23 @@ public interface BigNumber {
 
   void divideByTwo();
 
+  /**
+   * Multiplies the number by 2^k, or divides it by 2^-k if k is negative.
+   */
+  void scaleByPowerOfTwo(int k);
+
+  /**
+   * Returns floor(log2(|this|)), possibly off by one, e.g. 3 for 10.  The number must not be zero.
+   */
+  int binaryExponentEstimate();
+
+  /**
+   * Returns the first n bits of the fractional part followed by the round bit and the sticky bit,
+   * e.g. 0b1_0_1 for 1.1001 and n = 1.  The sticky bit is 1 if any bit after the round bit is 1.
+   * The integer part is ignored.  n must be less than 60.
+   */
+  long fractionBits(int n);
+
   boolean isLessThanOne();
 
   boolean isEqualToOrGreaterThanTwo();
@@ -0,0 +1,183 @@
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Finds the numbers in a buffer of ASCII numbers separated by {@link BulkParser#isDelimiter
+ * delimiters}, together with their decimal points and exponent markers, so that {@link Parser} does
+ * not need to look for them again.  The bytes are classified into bit masks 64 at a time and only
+ * the set bits are visited, so the digits are never looked at one by one here.
+ *
+ * <p>{@link #create()} returns VectorBoundaryScanner, which builds the masks with the incubating
+ * Vector API, when the jdk.incubator.vector module is available, and this scalar implementation
+ * otherwise.  VectorBoundaryScanner is in the vector source set, which is only compiled on JDK 16 and
+ * later, so it is loaded by name.
+ */
+class BoundaryScanner {
+  // Decided once, so that create() does not try the vector scanner again where it cannot be used
+  private static final Supplier<BoundaryScanner> FACTORY = findFactory();
+
+  // Bit k is set if the byte at i + k is a delimiter, a decimal point, etc.  Set by classify().
+  long delimiters;
+  long points;
+  long markers;
+  long signs;
+  long others; // Anything else but a digit
+
+  static BoundaryScanner create() {
+    return FACTORY.get();
+  }
+
+  private static Supplier<BoundaryScanner> findFactory() {
+    if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+      try {
+        Class<?> vector = Class.forName("VectorBoundaryScanner");
+        if (vector.getDeclaredField("SUPPORTED").getBoolean(null)) {
+          Constructor<?> constructor = vector.getDeclaredConstructor();
+          constructor.newInstance();
+          return () -> {
+            try {
+              return (BoundaryScanner) constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+              throw new IllegalStateException(e); // It worked in findFactory
+            }
+          };
+        }
+      } catch (ReflectiveOperationException | LinkageError e) {
+        // Not compiled, or the classes cannot be used
+      }
+    }
+    return BoundaryScanner::new;
+  }
+
+  /**
+   * Appends the numbers in bytes[from, to) to out.  A number that runs into to is left for the next
+   * call unless last is true.  Returns the index where that number starts, or to.
+   */
+  int scan(byte[] bytes, int from, int to, boolean last, Boundaries out) {
+    int start = -1; // The start of the current number, or -1 between numbers
+    int point = -1;
+    int marker = -1;
+    boolean plain = false;
+    for (int i = from; i < to; i += 64) {
+      int n = Math.min(64, to - i);
+      classify(bytes, i, n);
+      long valid = n == 64 ? -1L : (1L << n) - 1;
+      long previousDelimiters = delimiters << 1 | (start < 0 ? 1 : 0);
+      long starts = ~delimiters & previousDelimiters & valid;
+      long ends = delimiters & ~previousDelimiters;
+      long events = starts | ends | points | markers | signs | others;
+      while (events != 0) {
+        int k = Long.numberOfTrailingZeros(events);
+        long bit = events & -events;
+        events ^= bit;
+        int index = i + k;
+        if ((starts & bit) != 0) {
+          start = index;
+          point = -1;
+          marker = -1;
+          plain = true;
+        }
+        if ((ends & bit) != 0) {
+          out.add(start, index, point, marker, plain);
+          start = -1;
+        } else if ((points & bit) != 0) {
+          if (point >= 0 || marker >= 0) plain = false;
+          point = index;
+        } else if ((markers & bit) != 0) {
+          if (marker >= 0) plain = false;
+          marker = index;
+        } else if ((signs & bit) != 0) {
+          if (index != start && (marker < 0 || index != marker + 1)) plain = false;
+        } else if ((others & bit) != 0) {
+          plain = false;
+        }
+      }
+    }
+    if (start < 0) return to;
+    if (!last) return start;
+    out.add(start, to, point, marker, plain);
+    return to;
+  }
+
+  // Sets the masks for bytes[i, i + n), where n <= 64
+  void classify(byte[] bytes, int i, int n) {
+    long d = 0;
+    long p = 0;
+    long m = 0;
+    long s = 0;
+    long o = 0;
+    for (int k = 0; k < n; k++) {
+      byte b = bytes[i + k];
+      long bit = 1L << k;
+      if (b >= '0' && b <= '9') continue;
+      if (BulkParser.isDelimiter(b)) {
+        d |= bit;
+      } else if (b == '.') {
+        p |= bit;
+      } else if (b == 'e' || b == 'E') {
+        m |= bit;
+      } else if (b == '-' || b == '+') {
+        s |= bit;
+      } else {
+        o |= bit;
+      }
+    }
+    delimiters = d;
+    points = p;
+    markers = m;
+    signs = s;
+    others = o;
+  }
+
+  /**
+   * The positions of the numbers found by {@link #scan}.  point and marker are -1 if absent.  A
+   * number is plain if it can be given to {@link Parser#parseDouble(byte[], int, int, int, int)}, i.e.
+   * it has only digits besides them and the signs at the right places.
+   */
+  static final class Boundaries {
+    private int[] positions = new int[4 * 256]; // start, end, point and marker of each number
+    private boolean[] plain = new boolean[256];
+    private int count;
+
+    void clear() {
+      count = 0;
+    }
+
+    int count() {
+      return count;
+    }
+
+    int start(int k) {
+      return positions[4 * k];
+    }
+
+    int end(int k) {
+      return positions[4 * k + 1];
+    }
+
+    int point(int k) {
+      return positions[4 * k + 2];
+    }
+
+    int marker(int k) {
+      return positions[4 * k + 3];
+    }
+
+    boolean isPlain(int k) {
+      return plain[k];
+    }
+
+    void add(int start, int end, int point, int marker, boolean plain) {
+      if (count == this.plain.length) {
+        positions = Arrays.copyOf(positions, 2 * positions.length);
+        this.plain = Arrays.copyOf(this.plain, 2 * this.plain.length);
+      }
+      positions[4 * count] = start;
+      positions[4 * count + 1] = end;
+      positions[4 * count + 2] = point;
+      positions[4 * count + 3] = marker;
+      this.plain[count++] = plain;
+    }
+  }
+}
@@ -0,0 +1,19 @@
+/**
+ * Thrown by {@link BulkParser} when an entry cannot be parsed.
+ */
+public class BulkParseException extends IllegalArgumentException {
+  private static final long serialVersionUID = 1L;
+  private final long offset;
+
+  public BulkParseException(String message, long offset, Throwable cause) {
+    super(message, cause);
+    this.offset = offset;
+  }
+
+  /**
+   * Returns the byte offset of the malformed entry from the start of the input.
+   */
+  public long getOffset() {
+    return offset;
+  }
+}
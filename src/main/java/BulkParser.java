@@ -0,0 +1,180 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses a file of numbers separated by newlines, commas or whitespace, e.g. a CSV dump.  The file
+ * is memory-mapped and split at delimiters into chunks, which are parsed in parallel.  The entries
+ * are returned in file order.
+ */
+public final class BulkParser {
+  // Each chunk is mapped separately, so it must stay well below 2GB
+  private static final long MAX_CHUNK_SIZE = 64L << 20;
+
+  private BulkParser() {
+  }
+
+  public static double[] parseDoubles(Path path) throws IOException {
+    return (double[]) parse(path, false);
+  }
+
+  public static float[] parseFloats(Path path) throws IOException {
+    return (float[]) parse(path, true);
+  }
+
+  static boolean isDelimiter(byte b) {
+    return b == '\n' || b == '\r' || b == ',' || b == ' ' || b == '\t';
+  }
+
+  private static Object parse(Path path, boolean isFloat) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long[] bounds = split(channel);
+      ChunkTask[] tasks = new ChunkTask[bounds.length - 1];
+      for (int i = 0; i < tasks.length; i++) {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]);
+        tasks[i] = new ChunkTask(buffer, bounds[i]);
+      }
+      // First pass: count the entries in each chunk so that every chunk knows where its results go
+      ForkJoinTask.invokeAll(tasks);
+      long total = 0;
+      for (ChunkTask task : tasks) {
+        task.index = (int) total;
+        total += task.count;
+      }
+      if (total > Integer.MAX_VALUE - 8) {
+        throw new IllegalArgumentException("Too many entries: " + total);
+      }
+      // Second pass: parse
+      double[] doubles = isFloat ? null : new double[(int) total];
+      float[] floats = isFloat ? new float[(int) total] : null;
+      for (ChunkTask task : tasks) {
+        task.reinitialize();
+        task.doubles = doubles;
+        task.floats = floats;
+      }
+      ForkJoinTask.invokeAll(tasks);
+      // Report the first malformed entry in the file
+      for (ChunkTask task : tasks) {
+        if (task.failure != null) {
+          throw new BulkParseException("Malformed number at byte offset " + task.failureOffset,
+              task.failureOffset, task.failure);
+        }
+      }
+      return isFloat ? floats : doubles;
+    }
+  }
+
+  // Returns the chunk boundaries, each of which is at a delimiter or at the end of the file
+  private static long[] split(FileChannel channel) throws IOException {
+    long size = channel.size();
+    int count = (int) Math.max(ForkJoinPool.getCommonPoolParallelism(), (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+    long[] bounds = new long[count + 1];
+    int n = 1;
+    ByteBuffer buffer = ByteBuffer.allocate(4096);
+    for (int k = 1; k < count; k++) {
+      long pos = Math.max(size / count * k, bounds[n - 1]);
+      // Move forward to the next delimiter
+      search:
+      while (pos < size) {
+        buffer.clear();
+        int read = channel.read(buffer, pos);
+        if (read <= 0) break;
+        for (int i = 0; i < read; i++) {
+          if (isDelimiter(buffer.get(i))) {
+            pos += i;
+            break search;
+          }
+        }
+        pos += read;
+      }
+      if (pos >= size) break;
+      if (pos > bounds[n - 1]) bounds[n++] = pos;
+    }
+    bounds[n++] = size;
+    return Arrays.copyOf(bounds, n);
+  }
+
+  private static class ChunkTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    // The chunk is copied into a block of this size at a time and scanned for numbers
+    private static final int BLOCK_SIZE = 64 << 10;
+    private final MappedByteBuffer buffer;
+    private final long base;
+    private int count;
+    private int index; // Index of the first entry in the results
+    private double[] doubles;
+    private float[] floats;
+    private long failureOffset;
+    private RuntimeException failure;
+
+    ChunkTask(MappedByteBuffer buffer, long base) {
+      this.buffer = buffer;
+      this.base = base;
+    }
+
+    @Override protected void compute() {
+      // Counts the entries in the first pass and parses them in the second
+      boolean counting = doubles == null && floats == null;
+      BoundaryScanner scanner = BoundaryScanner.create();
+      BoundaryScanner.Boundaries numbers = new BoundaryScanner.Boundaries();
+      Parser parser = new Parser();
+      byte[] block = new byte[BLOCK_SIZE];
+      int length = 0; // Bytes in the block
+      long blockOffset = 0; // Offset of block[0] in the chunk
+      int position = 0; // Next byte to copy from the buffer
+      int limit = buffer.limit();
+      int next = index;
+      while (true) {
+        int n = Math.min(block.length - length, limit - position);
+        buffer.get(position, block, length, n);
+        position += n;
+        length += n;
+        boolean last = position == limit;
+        numbers.clear();
+        int rest = scanner.scan(block, 0, length, last, numbers);
+        if (counting) {
+          count += numbers.count();
+        } else {
+          for (int k = 0; k < numbers.count(); k++) {
+            try {
+              next = parse(parser, block, numbers, k, next);
+            } catch (RuntimeException e) {
+              failureOffset = base + blockOffset + numbers.start(k);
+              failure = e;
+              return;
+            }
+          }
+        }
+        if (last) return;
+        // Move the unfinished entry to the front
+        System.arraycopy(block, rest, block, 0, length - rest);
+        blockOffset += rest;
+        length -= rest;
+        if (length == block.length) block = Arrays.copyOf(block, 2 * block.length);
+      }
+    }
+
+    // Parses the k-th number in the block into the results at next, and returns the next index
+    private int parse(Parser parser, byte[] block, BoundaryScanner.Boundaries numbers, int k, int next) {
+      int start = numbers.start(k);
+      int end = numbers.end(k);
+      if (floats != null) {
+        floats[next] = numbers.isPlain(k)
+            ? parser.parseFloat(block, start, end, numbers.point(k), numbers.marker(k))
+            : parser.parseFloat(block, start, end);
+      } else {
+        doubles[next] = numbers.isPlain(k)
+            ? parser.parseDouble(block, start, end, numbers.point(k), numbers.marker(k))
+            : parser.parseDouble(block, start, end);
+      }
+      return next + 1;
+    }
+  }
+}
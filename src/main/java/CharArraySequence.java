@@ -0,0 +1,27 @@
+/**
+ * A reusable {@link CharSequence} view of a char array, so that the array can be parsed without
+ * copying it into a String.
+ */
+final class CharArraySequence implements CharSequence {
+  private char[] chars;
+
+  void reset(char[] chars) {
+    this.chars = chars;
+  }
+
+  @Override public int length() {
+    return chars.length;
+  }
+
+  @Override public char charAt(int index) {
+    return chars[index];
+  }
+
+  @Override public CharSequence subSequence(int start, int end) {
+    return new String(chars, start, end - start);
+  }
+
+  @Override public String toString() {
+    return new String(chars);
+  }
+}
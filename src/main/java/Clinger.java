@@ -0,0 +1,44 @@
+/**
+ * Clinger's fast path: if both the significand and the power of ten are exactly representable,
+ * a single multiplication or division gives the correctly rounded result.
+ *
+ * See William D. Clinger, "How to Read Floating Point Numbers Accurately" (1990).
+ */
+final class Clinger {
+  private static final double[] DOUBLE_POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+  };
+  private static final float[] FLOAT_POWERS_OF_TEN = {
+      1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f,
+  };
+
+  private Clinger() {
+  }
+
+  /**
+   * Returns true if w * 10^q can be computed exactly by {@link #toDouble}, e.g. any number with
+   * up to 15 significant digits and |q| <= 22.
+   */
+  static boolean isExactDouble(long w, int q) {
+    return w >= 0 && w <= 1L << 53 && q >= -22 && q <= 22;
+  }
+
+  /**
+   * Returns true if w * 10^q can be computed exactly by {@link #toFloat}, e.g. any number with
+   * up to 7 significant digits and |q| <= 10.
+   */
+  static boolean isExactFloat(long w, int q) {
+    return w >= 0 && w <= 1L << 24 && q >= -10 && q <= 10;
+  }
+
+  static double toDouble(long w, int q) {
+    double d = w;
+    return q < 0 ? d / DOUBLE_POWERS_OF_TEN[-q] : d * DOUBLE_POWERS_OF_TEN[q];
+  }
+
+  static float toFloat(long w, int q) {
+    float f = w;
+    return q < 0 ? f / FLOAT_POWERS_OF_TEN[-q] : f * FLOAT_POWERS_OF_TEN[q];
+  }
+}
@@ -0,0 +1,210 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Scans a plain decimal literal such as "-3.14159e+2" into a 64-bit significand and a decimal
+ * exponent, so that the fast paths in {@link Parser} do not need to build a {@link BigNumber}.
+ */
+final class DecimalScanner {
+  // The number of decimal digits that always fit in an unsigned 64-bit integer
+  private static final int MAX_DIGITS = 19;
+  // Exponents beyond this are saturated.  Anything this large is zero or infinity anyway.
+  private static final long MAX_EXPONENT = 1_000_000_000L;
+  private static final VarHandle LONG_LITTLE_ENDIAN =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  boolean negative;
+  long significand; // The first 19 significant digits as an unsigned integer
+  int digits; // The number of digits in the significand
+  int exponent; // The value is significand * 10^exponent, e.g. exponent = -5 for 3.14159
+  boolean truncated; // True if some nonzero digits did not fit into the significand
+  int digitsFrom; // s[digitsFrom, digitsTo) holds all the digits, the decimal point and underscores
+  int digitsTo;
+
+  /**
+   * Scans s[from, to).  Returns false if it is not a plain decimal literal, e.g. a hexadecimal one or a
+   * malformed one.  The caller should fall back to {@link BigNumber} in that case.
+   */
+  boolean scan(CharSequence s, int from, int to) {
+    int i = from;
+    if (i == to) return false;
+    char c = s.charAt(i);
+    negative = c == '-';
+    if (c == '-' || c == '+') i++;
+    digitsFrom = i;
+
+    // ASCII bytes are read eight digits at a time first
+    byte[] ascii = s instanceof AsciiSequence ? ((AsciiSequence) s).bytes() : null;
+    significand = 0;
+    this.digits = 0;
+    int start = i;
+    if (ascii != null) i = scanEightDigits(ascii, i, to);
+    long w = significand;
+    int digits = this.digits;
+    long exp = 0;
+    boolean seenDigit = i > start;
+    truncated = false;
+    for (; i < to; i++) {
+      c = s.charAt(i);
+      if (c >= '0' && c <= '9') {
+        seenDigit = true;
+        if (digits < MAX_DIGITS) {
+          if (w != 0 || c != '0') {
+            w = 10 * w + (c - '0');
+            digits++;
+          }
+        } else {
+          exp++;
+          if (c != '0') truncated = true;
+        }
+      } else if (c != '_') {
+        break;
+      }
+    }
+    if (i < to && s.charAt(i) == '.') {
+      i++;
+      if (ascii != null) {
+        significand = w;
+        this.digits = digits;
+        start = i;
+        i = scanEightDigits(ascii, i, to);
+        w = significand;
+        digits = this.digits;
+        exp -= i - start;
+        seenDigit |= i > start;
+      }
+      for (; i < to; i++) {
+        c = s.charAt(i);
+        if (c >= '0' && c <= '9') {
+          seenDigit = true;
+          if (digits < MAX_DIGITS) {
+            if (w != 0 || c != '0') {
+              w = 10 * w + (c - '0');
+              digits++;
+            }
+            exp--;
+          } else if (c != '0') {
+            truncated = true;
+          }
+        } else if (c != '_') {
+          break;
+        }
+      }
+    }
+    if (!seenDigit) return false;
+    digitsTo = i;
+    if (i < to && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+      i++;
+      boolean negativeExp = false;
+      if (i < to && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+        negativeExp = s.charAt(i) == '-';
+        i++;
+      }
+      long e = 0;
+      boolean seenExpDigit = false;
+      for (; i < to; i++) {
+        c = s.charAt(i);
+        if (c >= '0' && c <= '9') {
+          seenExpDigit = true;
+          if (e < MAX_EXPONENT) e = 10 * e + (c - '0');
+        } else if (c != '_') {
+          return false;
+        }
+      }
+      if (!seenExpDigit) return false;
+      exp += negativeExp ? -e : e;
+    }
+    if (i != to) return false;
+
+    significand = w;
+    this.digits = digits;
+    exponent = (int) Math.max(-MAX_EXPONENT, Math.min(MAX_EXPONENT, exp));
+    return true;
+  }
+
+  /**
+   * Scans ascii[from, to) whose decimal point and exponent marker are already known to be at point
+   * and marker, or -1 if absent.  All the other bytes must be digits except for a sign at from and
+   * right after the marker, so they are not classified again.  Returns false if there are no digits
+   * in the significand or in the exponent.
+   */
+  boolean scan(byte[] ascii, int from, int to, int point, int marker) {
+    int i = from;
+    if (i == to) return false;
+    negative = ascii[i] == '-';
+    if (ascii[i] == '-' || ascii[i] == '+') i++;
+    int end = marker >= 0 ? marker : to;
+    int integerEnd = point >= 0 ? point : end;
+    if (integerEnd - i + (point >= 0 ? end - point - 1 : 0) == 0) return false;
+    digitsFrom = i;
+    digitsTo = end;
+    significand = 0;
+    digits = 0;
+    truncated = false;
+    long exp = appendDigits(ascii, i, integerEnd, false);
+    if (point >= 0) exp += appendDigits(ascii, point + 1, end, true);
+    if (marker >= 0) {
+      i = marker + 1;
+      boolean negativeExp = i < to && ascii[i] == '-';
+      if (i < to && (ascii[i] == '-' || ascii[i] == '+')) i++;
+      if (i == to) return false;
+      long e = 0;
+      for (; i < to; i++) {
+        if (e < MAX_EXPONENT) e = 10 * e + (ascii[i] - '0');
+      }
+      exp += negativeExp ? -e : e;
+    }
+    exponent = (int) Math.max(-MAX_EXPONENT, Math.min(MAX_EXPONENT, exp));
+    return true;
+  }
+
+  // Appends the digits in ascii[i, to) to the significand and returns the change of the exponent
+  private long appendDigits(byte[] ascii, int i, int to, boolean fraction) {
+    int start = i;
+    i = scanEightDigits(ascii, i, to);
+    long exp = fraction ? start - i : 0;
+    for (; i < to; i++) {
+      int d = ascii[i] - '0';
+      if (digits < MAX_DIGITS) {
+        if (significand != 0 || d != 0) {
+          significand = 10 * significand + d;
+          digits++;
+        }
+        if (fraction) exp--;
+      } else {
+        if (!fraction) exp++;
+        if (d != 0) truncated = true;
+      }
+    }
+    return exp;
+  }
+
+  // Reads eight digits at a time into the significand while they fit, and returns the index of the rest
+  private int scanEightDigits(byte[] ascii, int i, int to) {
+    while (digits <= MAX_DIGITS - 8 && to - i >= 8) {
+      long chunk = (long) LONG_LITTLE_ENDIAN.get(ascii, i);
+      if (!isEightDigits(chunk)) break;
+      chunk -= 0x3030303030303030L;
+      // The first digit is in the lowest byte.  Leading zeros are not significant.
+      digits += significand != 0 ? 8 : 8 - (Long.numberOfTrailingZeros(chunk) >>> 3);
+      significand = 100_000_000 * significand + parseEightDigits(chunk);
+      i += 8;
+    }
+    return i;
+  }
+
+  private static boolean isEightDigits(long chunk) {
+    // A byte is a digit if neither adding 0x46 nor subtracting 0x30 sets its top bit
+    return ((chunk + 0x4646464646464646L | chunk - 0x3030303030303030L) & 0x8080808080808080L) == 0;
+  }
+
+  // Converts eight digits, minus '0' each, with the first digit in the lowest byte
+  private static long parseEightDigits(long chunk) {
+    chunk = chunk * 10 + (chunk >>> 8); // Pairs of digits
+    long mask = 0x000000FF000000FFL;
+    long mul1 = 100 + (1_000_000L << 32);
+    long mul2 = 1 + (10_000L << 32);
+    return ((chunk & mask) * mul1 + ((chunk >>> 16) & mask) * mul2) >>> 32;
+  }
+}
@@ -0,0 +1,112 @@
+/**
+ * Digit comparison slow path: decides between adjacent floating point numbers by comparing all
+ * the decimal digits with the halfway point between them exactly, as fast_float's digit_comp or
+ * Clinger's Algorithm R does.  It is used when the input has more digits than Eisel-Lemire reads.
+ */
+final class DigitComparison {
+  // The digits are read in chunks that fit in a long
+  private static final int CHUNK_DIGITS = 18;
+  // Reused across calls, so an instance must not be shared between threads.
+  private final BigInt digits = new BigInt();
+  private final BigInt power = new BigInt();
+  private final BigInt left = new BigInt();
+  private final BigInt right = new BigInt();
+
+  /**
+   * Returns the bits of the double nearest to the scanned input without the sign bit.  candidate
+   * must be the bits for the first 19 significant digits, i.e. a lower bound of the answer.
+   */
+  long toDoubleBits(CharSequence s, DecimalScanner scanner, long candidate) {
+    return compute(s, scanner, candidate, 52, 1023, 0x7FF);
+  }
+
+  /**
+   * Returns the bits of the float nearest to the scanned input without the sign bit.  candidate
+   * must be the bits for the first 19 significant digits, i.e. a lower bound of the answer.
+   */
+  long toFloatBits(CharSequence s, DecimalScanner scanner, long candidate) {
+    return compute(s, scanner, candidate, 23, 127, 0xFF);
+  }
+
+  private long compute(CharSequence s, DecimalScanner scanner, long candidate, int mantissaBits, int bias,
+      int infinitePower) {
+    // The halfway points near the candidate have no digits below 10^min(0, e - 1), where the
+    // candidate is m * 2^e, so the digits after that position only matter as a sticky digit.
+    int e = (int) Math.max(1, candidate >>> mantissaBits) - bias - mantissaBits;
+    int e10 = scanner.digits - 1 + scanner.exponent;
+    int count = readDigits(s, scanner.digitsFrom, scanner.digitsTo, Math.min(BigDecimal.MAX_DIGITS, e10 + 2 + Math.max(0, 1 - e)));
+    // The value is digits * 10^q
+    int q = scanner.exponent + scanner.digits - count;
+    // Apply 5^q once to the digits or to the halfway points
+    power.set(1);
+    if (q >= 0) {
+      digits.multiplyByPowerOfFive(q);
+    } else {
+      power.multiplyByPowerOfFive(-q);
+    }
+    long infinity = (long) infinitePower << mantissaBits;
+    long bits = candidate;
+    // Move up while the value is beyond the halfway point to the next floating point number
+    while (bits < infinity) {
+      long m = bits & ((1L << mantissaBits) - 1);
+      int power = (int) (bits >>> mantissaBits);
+      if (power > 0) {
+        m |= 1L << mantissaBits;
+      } else {
+        // subnormal
+        power = 1;
+      }
+      // The halfway point is (2m + 1) * 2^(e - 1) where the current number is m * 2^e
+      int c = compareWithHalfway(q, 2 * m + 1, power - bias - mantissaBits - 1);
+      // Round to nearest (even)
+      if (c < 0 || (c == 0 && (bits & 1) == 0)) break;
+      bits++;
+    }
+    return bits;
+  }
+
+  // Returns the sign of digits * 10^q - halfway * 2^e, where 5^q is already applied to either side
+  private int compareWithHalfway(int q, long halfway, int e) {
+    left.set(digits);
+    right.set(power);
+    right.multiplyAdd(halfway, 0);
+    // Now compare left * 2^q with right * 2^e
+    if (q > e) {
+      left.shiftLeft(q - e);
+    } else {
+      right.shiftLeft(e - q);
+    }
+    return left.compareTo(right);
+  }
+
+  // Reads up to maxDigits significant digits into this.digits and returns the number of them
+  private int readDigits(CharSequence s, int from, int to, int maxDigits) {
+    digits.set(0);
+    int count = 0;
+    long chunk = 0;
+    int chunkDigits = 0;
+    boolean sticky = false;
+    for (int i = from; i < to; i++) {
+      char c = s.charAt(i);
+      if (c < '0' || c > '9' || (count == 0 && c == '0')) continue;
+      if (count == maxDigits) {
+        if (c != '0') sticky = true;
+        continue;
+      }
+      chunk = 10 * chunk + (c - '0');
+      count++;
+      if (++chunkDigits == CHUNK_DIGITS) {
+        digits.multiplyAdd(Parser.POWERS_OF_TEN[CHUNK_DIGITS], chunk);
+        chunk = 0;
+        chunkDigits = 0;
+      }
+    }
+    if (chunkDigits > 0) digits.multiplyAdd(Parser.POWERS_OF_TEN[chunkDigits], chunk);
+    if (sticky) {
+      // Stand in for the dropped digits with a single 1 after the kept ones
+      digits.multiplyAdd(10, 1);
+      count++;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,120 @@
+import java.math.BigInteger;
+
+/**
+ * Eisel-Lemire fast path: converts w * 10^q into the nearest float or double using a 64-bit
+ * significand and a table of 128-bit truncated powers of five.
+ *
+ * See Daniel Lemire, "Number Parsing at a Gigabyte per Second" (2021).
+ */
+final class EiselLemire {
+  // Returned when the product is too close to a rounding boundary to decide.
+  static final long FAILED = -1;
+
+  private static final int SMALLEST_POWER_OF_TEN = -342;
+  private static final int LARGEST_POWER_OF_TEN = 308;
+  // 128-bit approximations of 5^q normalized so that the most significant bit is set.
+  // POWERS_OF_FIVE[2 * i] holds the high 64 bits and POWERS_OF_FIVE[2 * i + 1] the low 64 bits.
+  private static final long[] POWERS_OF_FIVE = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+
+  static {
+    BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+    for (int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+      BigInteger c;
+      if (q < 0) {
+        // Use the reciprocal rounded up so that the product never underestimates 10^q.
+        BigInteger power5 = BigInteger.valueOf(5).pow(-q);
+        int z = power5.bitLength();
+        int b = q >= -27 ? z + 127 : 2 * z + 128;
+        c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+      } else {
+        c = BigInteger.valueOf(5).pow(q);
+      }
+      c = c.bitLength() > 128 ? c.shiftRight(c.bitLength() - 128) : c.shiftLeft(128 - c.bitLength());
+      int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+      POWERS_OF_FIVE[index] = c.shiftRight(64).longValue();
+      POWERS_OF_FIVE[index + 1] = c.and(mask).longValue();
+    }
+  }
+
+  private EiselLemire() {
+  }
+
+  /**
+   * Returns the bits of the double nearest to w * 10^q without the sign bit, where w is
+   * an unsigned 64-bit integer, or {@link #FAILED} if the result cannot be decided.
+   */
+  static long toDoubleBits(long w, int q) {
+    return compute(w, q, 52, -1023, 0x7FF, -4, 23, -342, 308);
+  }
+
+  /**
+   * Returns the bits of the float nearest to w * 10^q without the sign bit, where w is
+   * an unsigned 64-bit integer, or {@link #FAILED} if the result cannot be decided.
+   */
+  static long toFloatBits(long w, int q) {
+    return compute(w, q, 23, -127, 0xFF, -17, 10, -65, 38);
+  }
+
+  private static long compute(long w, int q, int mantissaBits, int minExponent, int infinitePower,
+      int minRoundToEven, int maxRoundToEven, int smallestPowerOfTen, int largestPowerOfTen) {
+    if (w == 0 || q < smallestPowerOfTen) return 0;
+    if (q > largestPowerOfTen) return (long) infinitePower << mantissaBits;
+
+    int lz = Long.numberOfLeadingZeros(w);
+    w <<= lz;
+    int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+    long lo = w * POWERS_OF_FIVE[index];
+    long hi = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+    long precisionMask = -1L >>> (mantissaBits + 3);
+    if ((hi & precisionMask) == precisionMask) {
+      // The truncated product may be off in the bits we need.  Use the low half of the table too.
+      long secondHi = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+      long newLo = lo + secondHi;
+      if (Long.compareUnsigned(newLo, lo) < 0) hi++;
+      lo = newLo;
+    }
+    if (lo == -1L && (q < -27 || q > 55)) {
+      // The product is still ambiguous.  5^q is exact for 0 <= q <= 55, and so is the reciprocal for -27 <= q < 0.
+      return FAILED;
+    }
+
+    int upperBit = (int) (hi >>> 63);
+    int shift = upperBit + 64 - mantissaBits - 3;
+    long mantissa = hi >>> shift;
+    int power2 = power(q) + upperBit - lz - minExponent;
+    if (power2 <= 0) {
+      // subnormal
+      if (-power2 + 1 >= 64) return 0;
+      mantissa >>>= -power2 + 1;
+      mantissa += mantissa & 1;
+      mantissa >>>= 1;
+      // The mantissa may have been rounded up to the smallest normal number.
+      power2 = mantissa < (1L << mantissaBits) ? 0 : 1;
+      return mantissa | (long) power2 << mantissaBits;
+    }
+    if (Long.compareUnsigned(lo, 1) <= 0 && q >= minRoundToEven && q <= maxRoundToEven
+        && (mantissa & 3) == 1 && (mantissa << shift) == hi) {
+      // Just at the middle of the floating point numbers.  Round to even.
+      mantissa &= ~1L;
+    }
+    mantissa += mantissa & 1;
+    mantissa >>>= 1;
+    if (mantissa >= (2L << mantissaBits)) {
+      // The mantissa is out of the range.  The exponent needs to be incremented.
+      mantissa = 1L << mantissaBits;
+      power2++;
+    }
+    mantissa &= ~(1L << mantissaBits);
+    if (power2 >= infinitePower) return (long) infinitePower << mantissaBits;
+    return mantissa | (long) power2 << mantissaBits;
+  }
+
+  // floor(log2(10^q)) + 63
+  static int power(int q) {
+    return (((152170 + 65536) * q) >> 16) + 63;
+  }
+
+  static long unsignedMultiplyHigh(long x, long y) {
+    return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+  }
+}
@@ -0,0 +1,88 @@
+import java.math.BigInteger;
+
+/**
+ * Float-only variant of {@link EiselLemire} with a single 64x64-bit multiplication.  A float needs
+ * only 25 bits of the product, so a 64-bit power of five rounded down almost always decides the
+ * result.  The inputs whose rounding may depend on the truncated bits are detected and reported as
+ * {@link EiselLemire#FAILED}, so this never rounds twice.
+ */
+final class EiselLemireFloat {
+  private static final int SMALLEST_POWER_OF_TEN = -65;
+  private static final int LARGEST_POWER_OF_TEN = 38;
+  // 5^q fits in 64 bits for 0 <= q <= 27, so the product is exact there
+  private static final int LARGEST_EXACT_POWER_OF_TEN = 27;
+  private static final long[] EXACT_POWERS_OF_FIVE = new long[LARGEST_EXACT_POWER_OF_TEN + 1];
+  // 64-bit approximations of 5^q rounded down and normalized so that the most significant bit is set.
+  private static final long[] POWERS_OF_FIVE = new long[LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1];
+
+  static {
+    EXACT_POWERS_OF_FIVE[0] = 1;
+    for (int i = 1; i < EXACT_POWERS_OF_FIVE.length; i++) EXACT_POWERS_OF_FIVE[i] = 5 * EXACT_POWERS_OF_FIVE[i - 1];
+    for (int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+      BigInteger c;
+      if (q < 0) {
+        BigInteger power5 = BigInteger.valueOf(5).pow(-q);
+        c = BigInteger.ONE.shiftLeft(power5.bitLength() + 63).divide(power5);
+      } else {
+        c = BigInteger.valueOf(5).pow(q);
+      }
+      c = c.bitLength() > 64 ? c.shiftRight(c.bitLength() - 64) : c.shiftLeft(64 - c.bitLength());
+      POWERS_OF_FIVE[q - SMALLEST_POWER_OF_TEN] = c.longValue();
+    }
+  }
+
+  private EiselLemireFloat() {
+  }
+
+  /**
+   * Returns the bits of the float nearest to w * 10^q without the sign bit, where w is an unsigned
+   * 64-bit integer, or {@link EiselLemire#FAILED} if the result cannot be decided or is subnormal.
+   */
+  static long toFloatBits(long w, int q) {
+    if (w == 0) return 0;
+    if (q < SMALLEST_POWER_OF_TEN || q > LARGEST_POWER_OF_TEN) return EiselLemire.FAILED;
+    long bits = compute(w, q, 0);
+    if (bits == EiselLemire.FAILED && q < 0 && q >= -LARGEST_EXACT_POWER_OF_TEN
+        && Long.remainderUnsigned(w, EXACT_POWERS_OF_FIVE[-q]) == 0) {
+      // w * 10^q = (w / 5^-q) * 2^q is a binary fraction, which may be just at the middle of the
+      // floating point numbers.  Convert it exactly.
+      bits = compute(Long.divideUnsigned(w, EXACT_POWERS_OF_FIVE[-q]), 0, q);
+    }
+    return bits;
+  }
+
+  // Returns the bits of the float nearest to w * 10^q * 2^binaryExponent
+  private static long compute(long w, int q, int binaryExponent) {
+    int lz = Long.numberOfLeadingZeros(w);
+    w <<= lz;
+    long power5 = POWERS_OF_FIVE[q - SMALLEST_POWER_OF_TEN];
+    long lo = w * power5;
+    long hi = EiselLemire.unsignedMultiplyHigh(w, power5);
+    int upperBit = (int) (hi >>> 63);
+    int shift = upperBit + 64 - 23 - 3;
+    long mantissa = hi >>> shift;
+    boolean exact = q >= 0 && q <= LARGEST_EXACT_POWER_OF_TEN;
+    if (!exact) {
+      // The exact product is in [hi:lo, hi:lo + w).  Give up if the bits we need may differ within it.
+      long carry = Long.compareUnsigned(lo + w, lo) < 0 ? 1 : 0;
+      if ((hi + carry) >>> shift != mantissa) return EiselLemire.FAILED;
+    }
+    int power2 = EiselLemire.power(q) + upperBit - lz + 127 + binaryExponent;
+    if (power2 <= 0) return EiselLemire.FAILED;
+    // The exact product is strictly above hi:lo otherwise, so it can only be just at the middle
+    // of the floating point numbers here.  Round to even.
+    if (exact && lo == 0 && (mantissa & 3) == 1 && (mantissa << shift) == hi) {
+      mantissa &= ~1L;
+    }
+    mantissa += mantissa & 1;
+    mantissa >>>= 1;
+    if (mantissa >= (2L << 23)) {
+      // The mantissa is out of the range.  The exponent needs to be incremented.
+      mantissa = 1L << 23;
+      power2++;
+    }
+    mantissa &= ~(1L << 23);
+    if (power2 >= 0xFF) return 0xFFL << 23;
+    return mantissa | (long) power2 << 23;
+  }
+}
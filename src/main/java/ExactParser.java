@@ -0,0 +1,151 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parses a decimal literal into an exact {@link java.math.BigDecimal}, for inputs with millions of
+ * digits.  The digits are split in halves, each half is converted recursively and they are
+ * combined as high * 10^n + low with cached powers of ten, so the cost is that of a few large
+ * multiplications instead of one pass over the whole number per digit chunk.  Large halves are
+ * converted in parallel on the common {@link ForkJoinPool}.
+ */
+public final class ExactParser {
+  // Pieces up to this many digits are converted directly
+  private static final int BASE_DIGITS = 1 << 9;
+  // Halves with more digits than this are converted in parallel
+  private static final int PARALLEL_DIGITS = 1 << 16;
+  private static final BigInteger TEN_TO_18 = BigInteger.TEN.pow(18);
+  // powersOfTen[j] = 10^(BASE_DIGITS * 2^j), grown on demand
+  private static BigInteger[] powersOfTen = {BigInteger.TEN.pow(BASE_DIGITS)};
+
+  private ExactParser() {
+  }
+
+  public static java.math.BigDecimal parse(String s) {
+    return parse(s, 0, s.length());
+  }
+
+  /**
+   * Parses s[from, to), e.g. "-123.456e-7", in the grammar of {@link Lexer}.  Underscores are
+   * ignored.
+   */
+  public static java.math.BigDecimal parse(CharSequence s, int from, int to) {
+    if (s == null || from >= to) {
+      throw new IllegalArgumentException("Cannot parse an empty string");
+    }
+    Lexer lexer = new Lexer();
+    lexer.lexOrThrow(s, from, to);
+    if (lexer.kind != Lexer.DECIMAL) {
+      throw new IllegalArgumentException("Not a decimal number: " + s.subSequence(from, to));
+    }
+    // Collect the digits so that they can be split by count
+    byte[] digits = new byte[lexer.fractionTo - lexer.integerFrom];
+    int count = 0;
+    long scale = 0;
+    for (int i = lexer.integerFrom; i < lexer.fractionTo; i++) {
+      char c = s.charAt(i);
+      if (c < '0' || c > '9') continue; // The point or an underscore
+      digits[count++] = (byte) (c - '0');
+      if (lexer.point >= 0 && i > lexer.point) scale++;
+    }
+    scale -= parseExp(s, lexer.exponentFrom, lexer.exponentTo);
+    if (scale != (int) scale) {
+      throw new IllegalArgumentException("Exponent out of range: " + s.subSequence(from, to));
+    }
+    BigInteger unscaled = toBigInteger(digits, 0, count);
+    return new java.math.BigDecimal(lexer.negative ? unscaled.negate() : unscaled, (int) scale);
+  }
+
+  // Parses the exponent in s[from, to) that the lexer has accepted.  It saturates at 2^40, where the
+  // scale is out of the range of int whatever the number of fraction digits.
+  private static long parseExp(CharSequence s, int from, int to) {
+    long exp = 0;
+    int esign = 1;
+    for (int i = from; i < to; i++) {
+      var c = s.charAt(i);
+      if (c == '-') {
+        esign = -1;
+      } else if (c >= '0' && c <= '9') {
+        if (exp < 1L << 40) exp = 10 * exp + (c - '0');
+      }
+    }
+    return esign * exp;
+  }
+
+  /**
+   * Converts the decimal digits (0 to 9, not '0' to '9') in digits[from, to) into an integer.
+   */
+  static BigInteger toBigInteger(byte[] digits, int from, int to) {
+    int n = to - from;
+    if (n <= BASE_DIGITS) return convertDirectly(digits, from, to);
+    // Make sure the powers are there before splitting, so that the tasks only read them
+    BigInteger[] powers = powersOfTen(32 - Integer.numberOfLeadingZeros((n - 1) / BASE_DIGITS));
+    ConvertTask task = new ConvertTask(digits, from, to, powers);
+    return n > PARALLEL_DIGITS ? ForkJoinPool.commonPool().invoke(task) : task.compute();
+  }
+
+  // Returns the powers of ten up to 10^(BASE_DIGITS * 2^(count - 1))
+  private static synchronized BigInteger[] powersOfTen(int count) {
+    if (powersOfTen.length < count) {
+      BigInteger[] powers = Arrays.copyOf(powersOfTen, count);
+      for (int j = powersOfTen.length; j < count; j++) powers[j] = powers[j - 1].multiply(powers[j - 1]);
+      powersOfTen = powers;
+    }
+    return powersOfTen;
+  }
+
+  private static BigInteger convertDirectly(byte[] digits, int from, int to) {
+    BigInteger result = BigInteger.ZERO;
+    long chunk = 0;
+    int chunkDigits = 0;
+    for (int i = from; i < to; i++) {
+      chunk = 10 * chunk + digits[i];
+      if (++chunkDigits == 18) {
+        result = result.multiply(TEN_TO_18).add(BigInteger.valueOf(chunk));
+        chunk = 0;
+        chunkDigits = 0;
+      }
+    }
+    if (chunkDigits > 0) {
+      result = result.multiply(BigInteger.TEN.pow(chunkDigits)).add(BigInteger.valueOf(chunk));
+    }
+    return result;
+  }
+
+  private static class ConvertTask extends RecursiveTask<BigInteger> {
+    private static final long serialVersionUID = 1L;
+    private final byte[] digits;
+    private final int from;
+    private final int to;
+    private final BigInteger[] powers;
+
+    ConvertTask(byte[] digits, int from, int to, BigInteger[] powers) {
+      this.digits = digits;
+      this.from = from;
+      this.to = to;
+      this.powers = powers;
+    }
+
+    @Override protected BigInteger compute() {
+      int n = to - from;
+      if (n <= BASE_DIGITS) return convertDirectly(digits, from, to);
+      // The low half has BASE_DIGITS * 2^j digits, the largest such count below n
+      int j = 31 - Integer.numberOfLeadingZeros((n - 1) / BASE_DIGITS);
+      int split = to - (BASE_DIGITS << j);
+      ConvertTask high = new ConvertTask(digits, from, split, powers);
+      ConvertTask low = new ConvertTask(digits, split, to, powers);
+      BigInteger h;
+      BigInteger l;
+      if (n > PARALLEL_DIGITS) {
+        high.fork();
+        l = low.compute();
+        h = high.join();
+      } else {
+        h = high.compute();
+        l = low.compute();
+      }
+      return h.multiply(powers[j]).add(l);
+    }
+  }
+}
@@ -0,0 +1,248 @@
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a float or a double with a fixed number of digits, like "%.6f" and "%.2e" in C: the exact
+ * binary value is rounded half to even, e.g. 0.125 with 2 fraction digits is "0.12".  NaN and the
+ * infinities are written as by {@link Double#toString(double)}.
+ *
+ * <p>The exact value m * 2^e is held as an integer D with v = D / 10^k, i.e. m * 5^-e with k = -e if
+ * e < 0 and m * 2^e with k = 0 otherwise, in base 10^9 limbs that are allocated once.  The powers
+ * of five and two are applied a limb-sized factor at a time from a table, so the digits can be read
+ * off D directly.  A FixedFormatter must not be shared between threads.
+ */
+public final class FixedFormatter {
+  // No double has nonzero digits beyond 2^-1074
+  public static final int MAX_PRECISION = 1074;
+  // The longest output, i.e. a negative 309-digit integer with MAX_PRECISION fraction digits
+  public static final int MAX_LENGTH = 1 + 309 + 1 + MAX_PRECISION;
+
+  private static final int BASE = 1_000_000_000;
+  private static final int LIMB_DIGITS = 9;
+  private static final int[] POWERS_OF_TEN = {
+      1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000,
+  };
+  // 5^13 is the largest power of five below 2^31
+  private static final int[] POWERS_OF_FIVE = new int[14];
+
+  static {
+    POWERS_OF_FIVE[0] = 1;
+    for (int i = 1; i < POWERS_OF_FIVE.length; i++) POWERS_OF_FIVE[i] = 5 * POWERS_OF_FIVE[i - 1];
+  }
+
+  // D from right to left.  Only limbs[0] to limbs[size - 1] are in use.  m * 5^1074 has 767 digits.
+  private final int[] limbs = new int[90];
+  private int size;
+  private int scale; // k
+  private final byte[] buf = new byte[MAX_LENGTH];
+  private int length;
+
+  /**
+   * Writes v with precision digits after the decimal point into out from offset, and returns the
+   * number of bytes written.  There is no decimal point if precision is 0.
+   */
+  public int formatFixed(double v, int precision, byte[] out, int offset) {
+    fixed(v, precision);
+    System.arraycopy(buf, 0, out, offset, length);
+    return length;
+  }
+
+  public int formatFixed(double v, int precision, char[] out, int offset) {
+    fixed(v, precision);
+    copy(out, offset);
+    return length;
+  }
+
+  public int formatFixed(float v, int precision, byte[] out, int offset) {
+    return formatFixed((double) v, precision, out, offset);
+  }
+
+  public int formatFixed(float v, int precision, char[] out, int offset) {
+    return formatFixed((double) v, precision, out, offset);
+  }
+
+  public String formatFixed(double v, int precision) {
+    fixed(v, precision);
+    return new String(buf, 0, length, StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Writes v with one digit before the decimal point and precision digits after it, followed by
+   * the exponent with a sign and at least two digits, e.g. "1.50e+03", into out from offset.
+   * Returns the number of bytes written.
+   */
+  public int formatScientific(double v, int precision, byte[] out, int offset) {
+    scientific(v, precision);
+    System.arraycopy(buf, 0, out, offset, length);
+    return length;
+  }
+
+  public int formatScientific(double v, int precision, char[] out, int offset) {
+    scientific(v, precision);
+    copy(out, offset);
+    return length;
+  }
+
+  public int formatScientific(float v, int precision, byte[] out, int offset) {
+    return formatScientific((double) v, precision, out, offset);
+  }
+
+  public int formatScientific(float v, int precision, char[] out, int offset) {
+    return formatScientific((double) v, precision, out, offset);
+  }
+
+  public String formatScientific(double v, int precision) {
+    scientific(v, precision);
+    return new String(buf, 0, length, StandardCharsets.ISO_8859_1);
+  }
+
+  private void copy(char[] out, int offset) {
+    if (offset < 0 || offset + length > out.length) {
+      throw new ArrayIndexOutOfBoundsException("Cannot write " + length + " chars at " + offset);
+    }
+    for (int i = 0; i < length; i++) out[offset + i] = (char) buf[i];
+  }
+
+  private void fixed(double v, int precision) {
+    if (!load(v, precision)) return;
+    if (scale > precision) roundAt(scale - precision);
+    int digits = digitCount();
+    if (digits <= scale) {
+      buf[length++] = '0';
+    } else {
+      for (int i = digits - 1; i >= scale; i--) buf[length++] = (byte) ('0' + digit(i));
+    }
+    if (precision > 0) {
+      buf[length++] = '.';
+      for (int i = scale - 1; i >= scale - precision; i--) buf[length++] = (byte) ('0' + digit(i));
+    }
+  }
+
+  private void scientific(double v, int precision) {
+    if (!load(v, precision)) return;
+    int digits = digitCount();
+    if (isZero()) {
+      digits = 1;
+      scale = 0;
+    } else if (digits > precision + 1) {
+      roundAt(digits - precision - 1);
+      digits = digitCount();
+    }
+    buf[length++] = (byte) ('0' + digit(digits - 1));
+    if (precision > 0) {
+      buf[length++] = '.';
+      for (int i = digits - 2; i >= digits - 1 - precision; i--) buf[length++] = (byte) ('0' + digit(i));
+    }
+    int exp = digits - 1 - scale;
+    buf[length++] = 'e';
+    buf[length++] = (byte) (exp < 0 ? '-' : '+');
+    exp = Math.abs(exp);
+    if (exp >= 100) buf[length++] = (byte) ('0' + exp / 100);
+    buf[length++] = (byte) ('0' + exp / 10 % 10);
+    buf[length++] = (byte) ('0' + exp % 10);
+  }
+
+  // Sets D and k to the exact value of |v| and writes the sign.  Returns false if v is not finite.
+  private boolean load(double v, int precision) {
+    if (precision < 0 || precision > MAX_PRECISION) {
+      throw new IllegalArgumentException("Precision must be in [0, " + MAX_PRECISION + "]: " + precision);
+    }
+    length = 0;
+    if (v != v) {
+      append("NaN");
+      return false;
+    }
+    long bits = Double.doubleToRawLongBits(v);
+    if (bits < 0) buf[length++] = '-';
+    int biased = (int) (bits >>> 52) & 0x7FF;
+    if (biased == 0x7FF) {
+      append("Infinity");
+      return false;
+    }
+    long m = bits & ((1L << 52) - 1);
+    int e = -1074;
+    if (biased != 0) {
+      m |= 1L << 52;
+      e = biased - 1075;
+    }
+    if (m != 0) {
+      // Fewer powers of five for the fraction
+      int zeros = Long.numberOfTrailingZeros(m);
+      m >>>= zeros;
+      e += zeros;
+    }
+    size = 0;
+    do {
+      limbs[size++] = (int) (m % BASE);
+      m /= BASE;
+    } while (m > 0);
+    if (e >= 0) {
+      scale = 0;
+      for (; e > 0; e -= Math.min(e, 29)) multiply(1 << Math.min(e, 29));
+    } else {
+      scale = -e;
+      for (; e < 0; e += Math.min(-e, 13)) multiply(POWERS_OF_FIVE[Math.min(-e, 13)]);
+    }
+    return true;
+  }
+
+  private void multiply(int factor) {
+    long carry = 0;
+    for (int i = 0; i < size; i++) {
+      long n = (long) limbs[i] * factor + carry;
+      limbs[i] = (int) (n % BASE);
+      carry = n / BASE;
+    }
+    for (; carry > 0; carry /= BASE) limbs[size++] = (int) (carry % BASE);
+  }
+
+  // Rounds D half to even to a multiple of 10^p, for p > 0
+  private void roundAt(int p) {
+    int r = digit(p - 1);
+    boolean sticky = false;
+    int limb = (p - 1) / LIMB_DIGITS;
+    if (limb < size) {
+      sticky = limbs[limb] % POWERS_OF_TEN[(p - 1) % LIMB_DIGITS] != 0;
+      for (int i = 0; i < limb && !sticky; i++) sticky = limbs[i] != 0;
+    }
+    boolean up = r > 5 || (r == 5 && (sticky || (digit(p) & 1) == 1));
+    // Clear the digits below 10^p
+    limb = p / LIMB_DIGITS;
+    for (int i = 0; i < Math.min(limb, size); i++) limbs[i] = 0;
+    if (limb < size) limbs[limb] -= limbs[limb] % POWERS_OF_TEN[p % LIMB_DIGITS];
+    if (!up) return;
+    while (size <= limb) limbs[size++] = 0;
+    int add = POWERS_OF_TEN[p % LIMB_DIGITS];
+    for (int i = limb; add > 0; i++) {
+      if (i == size) limbs[size++] = 0;
+      int n = limbs[i] + add;
+      add = n >= BASE ? 1 : 0;
+      limbs[i] = n - add * BASE;
+    }
+  }
+
+  // Returns the digit of 10^i in D
+  private int digit(int i) {
+    if (i < 0 || i / LIMB_DIGITS >= size) return 0;
+    return limbs[i / LIMB_DIGITS] / POWERS_OF_TEN[i % LIMB_DIGITS] % 10;
+  }
+
+  // Returns the number of digits of D, which is 1 for zero
+  private int digitCount() {
+    int top = size - 1;
+    while (top > 0 && limbs[top] == 0) top--;
+    int n = 1;
+    while (n < LIMB_DIGITS && limbs[top] >= POWERS_OF_TEN[n]) n++;
+    return top * LIMB_DIGITS + n;
+  }
+
+  private boolean isZero() {
+    for (int i = 0; i < size; i++) {
+      if (limbs[i] != 0) return false;
+    }
+    return true;
+  }
+
+  private void append(String s) {
+    for (int i = 0; i < s.length(); i++) buf[length++] = (byte) s.charAt(i);
+  }
+}
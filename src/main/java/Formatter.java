@@ -0,0 +1,329 @@
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the shortest decimal that {@link Parser} reads back as the same float or double, in the
+ * format of {@link Double#toString(double)} since JDK 19, e.g. "0.1", "100.0" and "1.0E-5".  As there,
+ * at least two digits are considered, so {@link Double#MIN_VALUE} is "4.9E-324".
+ *
+ * <p>The digits are found with Schubfach: the rounding interval of the value is scaled by a 126-bit
+ * approximation of a power of ten, and the shortest decimal inside it is read off the integer parts.
+ * The output is written into a caller-supplied array without allocation.  A Formatter reuses its
+ * buffers, so it must not be shared between threads.
+ *
+ * See Raffaello Giulietti, "The Schubfach way to render doubles" (2020).
+ */
+public final class Formatter {
+  // The longest output, e.g. "-2.2250738585072014E-308"
+  public static final int MAX_LENGTH = 24;
+
+  private static final int K_MIN = -324;
+  private static final int K_MAX = 292;
+  // g = floor(10^-k * 2^(125 - floor(log2(10^-k)))) + 1 for k in [K_MIN, K_MAX], which is in [2^125, 2^126).
+  // G[2 * i] holds the high 63 bits and G[2 * i + 1] the low 63 bits.
+  private static final long[] G = new long[2 * (K_MAX - K_MIN + 1)];
+  private static final long MASK_63 = (1L << 63) - 1;
+  private static final long MASK_32 = (1L << 32) - 1;
+
+  static {
+    BigInteger mask = BigInteger.valueOf(MASK_63);
+    for (int k = K_MIN; k <= K_MAX; k++) {
+      int r = 125 - flog2pow10(-k);
+      BigInteger g;
+      if (k <= 0) {
+        g = BigInteger.TEN.pow(-k);
+        g = r >= 0 ? g.shiftLeft(r) : g.shiftRight(-r);
+      } else {
+        g = BigInteger.ONE.shiftLeft(r).divide(BigInteger.TEN.pow(k));
+      }
+      g = g.add(BigInteger.ONE);
+      int index = 2 * (k - K_MIN);
+      G[index] = g.shiftRight(63).longValue();
+      G[index + 1] = g.and(mask).longValue();
+    }
+  }
+
+  private final byte[] buf = new byte[MAX_LENGTH];
+  private final byte[] digits = new byte[20];
+  private int length;
+
+  public String format(double v) {
+    formatDouble(v);
+    return new String(buf, 0, length, StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Writes v into out from offset as ASCII and returns the number of bytes written, which is at most
+   * {@link #MAX_LENGTH}.
+   */
+  public int format(double v, byte[] out, int offset) {
+    formatDouble(v);
+    System.arraycopy(buf, 0, out, offset, length);
+    return length;
+  }
+
+  /**
+   * Writes v into out from offset and returns the number of chars written, which is at most
+   * {@link #MAX_LENGTH}.
+   */
+  public int format(double v, char[] out, int offset) {
+    formatDouble(v);
+    copy(out, offset);
+    return length;
+  }
+
+  public String format(float v) {
+    formatFloat(v);
+    return new String(buf, 0, length, StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Writes v into out from offset as ASCII and returns the number of bytes written.
+   */
+  public int format(float v, byte[] out, int offset) {
+    formatFloat(v);
+    System.arraycopy(buf, 0, out, offset, length);
+    return length;
+  }
+
+  /**
+   * Writes v into out from offset and returns the number of chars written.
+   */
+  public int format(float v, char[] out, int offset) {
+    formatFloat(v);
+    copy(out, offset);
+    return length;
+  }
+
+  private void copy(char[] out, int offset) {
+    if (offset < 0 || offset + length > out.length) {
+      throw new ArrayIndexOutOfBoundsException("Cannot write " + length + " chars at " + offset);
+    }
+    for (int i = 0; i < length; i++) out[offset + i] = (char) buf[i];
+  }
+
+  private void formatDouble(double v) {
+    long bits = Double.doubleToRawLongBits(v);
+    length = 0;
+    if (v != v) {
+      append("NaN");
+      return;
+    }
+    if (bits < 0) buf[length++] = '-';
+    long t = bits & ((1L << 52) - 1);
+    int bq = (int) (bits >>> 52) & 0x7FF;
+    if (bq == 0x7FF) {
+      append("Infinity");
+    } else if (bq != 0) {
+      // v = c * 2^-mq
+      int mq = 1075 - bq;
+      long c = 1L << 52 | t;
+      if (0 < mq && mq < 53 && (c & ((1L << mq) - 1)) == 0) {
+        // An integer below 2^53 is its own shortest decimal
+        appendDecimal(c >> mq, 0);
+      } else {
+        toDecimal(-mq, c, 0);
+      }
+    } else if (t != 0) {
+      // Too few digits for two significant ones.  Scale by ten.
+      if (t < 3) {
+        toDecimal(-1074, 10 * t, -1);
+      } else {
+        toDecimal(-1074, t, 0);
+      }
+    } else {
+      append("0.0");
+    }
+  }
+
+  // Writes the shortest decimal in the rounding interval of c * 2^q, times 10^dk
+  private void toDecimal(int q, long c, int dk) {
+    int out = (int) c & 1; // The interval is closed if c is even
+    long cb = c << 2;
+    long cbr = cb + 2;
+    long cbl;
+    int k;
+    if (c != 1L << 52 || q == -1074) {
+      cbl = cb - 2;
+      k = flog10pow2(q);
+    } else {
+      // The lower neighbor is closer at a power of two
+      cbl = cb - 1;
+      k = flog10threeQuartersPow2(q);
+    }
+    int h = q + flog2pow10(-k) + 2;
+    int index = 2 * (k - K_MIN);
+    long g1 = G[index];
+    long g0 = G[index + 1];
+    // 4 * v * 10^-k and both ends of the interval, rounded to odd
+    long vb = rop(g1, g0, cb << h);
+    long vbl = rop(g1, g0, cbl << h);
+    long vbr = rop(g1, g0, cbr << h);
+    long s = vb >> 2;
+    if (s >= 100) {
+      // Try one digit less first
+      long sp10 = s / 10 * 10;
+      long tp10 = sp10 + 10;
+      boolean upin = vbl + out <= sp10 << 2;
+      boolean wpin = (tp10 << 2) + out <= vbr;
+      if (upin != wpin) {
+        appendDecimal(upin ? sp10 : tp10, k);
+        return;
+      }
+    }
+    long t = s + 1;
+    boolean uin = vbl + out <= s << 2;
+    boolean win = (t << 2) + out <= vbr;
+    if (uin != win) {
+      appendDecimal(uin ? s : t, k + dk);
+      return;
+    }
+    // Both are in the interval.  Take the closer one, or the even one on a tie.
+    long cmp = vb - (s + t << 1);
+    appendDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk);
+  }
+
+  // Returns g * cp / 2^127 rounded to odd
+  private static long rop(long g1, long g0, long cp) {
+    long x1 = Math.multiplyHigh(g0, cp);
+    long y0 = g1 * cp;
+    long y1 = Math.multiplyHigh(g1, cp);
+    long z = (y0 >>> 1) + x1;
+    long vbp = y1 + (z >>> 63);
+    return vbp | ((z & MASK_63) + MASK_63) >>> 63;
+  }
+
+  private void formatFloat(float v) {
+    int bits = Float.floatToRawIntBits(v);
+    length = 0;
+    if (v != v) {
+      append("NaN");
+      return;
+    }
+    if (bits < 0) buf[length++] = '-';
+    int t = bits & ((1 << 23) - 1);
+    int bq = (bits >>> 23) & 0xFF;
+    if (bq == 0xFF) {
+      append("Infinity");
+    } else if (bq != 0) {
+      // v = c * 2^-mq
+      int mq = 150 - bq;
+      int c = 1 << 23 | t;
+      if (0 < mq && mq < 24 && (c & ((1 << mq) - 1)) == 0) {
+        appendDecimal(c >> mq, 0);
+      } else {
+        toDecimal(-mq, c, 0);
+      }
+    } else if (t != 0) {
+      if (t < 8) {
+        toDecimal(-149, 10 * t, -1);
+      } else {
+        toDecimal(-149, t, 0);
+      }
+    } else {
+      append("0.0");
+    }
+  }
+
+  // The float version of toDecimal(int, long, int) with a 64-bit g
+  private void toDecimal(int q, int c, int dk) {
+    int out = c & 1;
+    long cb = (long) c << 2;
+    long cbr = cb + 2;
+    long cbl;
+    int k;
+    if (c != 1 << 23 || q == -149) {
+      cbl = cb - 2;
+      k = flog10pow2(q);
+    } else {
+      cbl = cb - 1;
+      k = flog10threeQuartersPow2(q);
+    }
+    int h = q + flog2pow10(-k) + 33;
+    long g = G[2 * (k - K_MIN)] + 1;
+    int vb = rop(g, cb << h);
+    int vbl = rop(g, cbl << h);
+    int vbr = rop(g, cbr << h);
+    int s = vb >> 2;
+    if (s >= 100) {
+      int sp10 = s / 10 * 10;
+      int tp10 = sp10 + 10;
+      boolean upin = vbl + out <= sp10 << 2;
+      boolean wpin = (tp10 << 2) + out <= vbr;
+      if (upin != wpin) {
+        appendDecimal(upin ? sp10 : tp10, k);
+        return;
+      }
+    }
+    int t = s + 1;
+    boolean uin = vbl + out <= s << 2;
+    boolean win = (t << 2) + out <= vbr;
+    if (uin != win) {
+      appendDecimal(uin ? s : t, k + dk);
+      return;
+    }
+    int cmp = vb - (s + t << 1);
+    appendDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk);
+  }
+
+  // Returns g * cp / 2^95 rounded to odd
+  private static int rop(long g, long cp) {
+    long x1 = Math.multiplyHigh(g, cp);
+    long vbp = x1 >>> 31;
+    return (int) (vbp | ((x1 & MASK_32) + MASK_32) >>> 32);
+  }
+
+  // Appends f * 10^e in plain notation if it is in [10^-3, 10^7), and in scientific one otherwise
+  private void appendDecimal(long f, int e) {
+    while (f % 10 == 0) {
+      f /= 10;
+      e++;
+    }
+    int n = 0;
+    for (; f > 0; f /= 10) digits[n++] = (byte) ('0' + f % 10); // Reversed
+    int exp = e + n - 1; // The exponent of the first digit
+    if (exp >= 0 && exp < 7) {
+      for (int i = 0; i <= exp; i++) buf[length++] = i < n ? digits[n - 1 - i] : (byte) '0';
+      buf[length++] = '.';
+      if (n <= exp + 1) buf[length++] = '0';
+      for (int i = exp + 1; i < n; i++) buf[length++] = digits[n - 1 - i];
+    } else if (exp < 0 && exp >= -3) {
+      buf[length++] = '0';
+      buf[length++] = '.';
+      for (int i = exp + 1; i < 0; i++) buf[length++] = '0';
+      for (int i = 0; i < n; i++) buf[length++] = digits[n - 1 - i];
+    } else {
+      buf[length++] = digits[n - 1];
+      buf[length++] = '.';
+      if (n == 1) buf[length++] = '0';
+      for (int i = 1; i < n; i++) buf[length++] = digits[n - 1 - i];
+      buf[length++] = 'E';
+      if (exp < 0) {
+        buf[length++] = '-';
+        exp = -exp;
+      }
+      if (exp >= 100) buf[length++] = (byte) ('0' + exp / 100);
+      if (exp >= 10) buf[length++] = (byte) ('0' + exp / 10 % 10);
+      buf[length++] = (byte) ('0' + exp % 10);
+    }
+  }
+
+  private void append(String s) {
+    for (int i = 0; i < s.length(); i++) buf[length++] = (byte) s.charAt(i);
+  }
+
+  // floor(log10(2^q))
+  private static int flog10pow2(int q) {
+    return (int) (q * 661_971_961_083L >> 41);
+  }
+
+  // floor(log10(3/4 * 2^q))
+  private static int flog10threeQuartersPow2(int q) {
+    return (int) (q * 661_971_961_083L + -274_743_187_321L >> 41);
+  }
+
+  // floor(log2(10^e))
+  private static int flog2pow10(int e) {
+    return (int) (e * 913_124_641_741L >> 38);
+  }
+}
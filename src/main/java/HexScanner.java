@@ -0,0 +1,95 @@
+import java.util.Arrays;
+
+/**
+ * Scans a hexadecimal literal such as "-0x1.8p+3" just far enough to tell its magnitude, so that
+ * {@link Parser} can return zero or infinity for out-of-range inputs without building a
+ * {@link BigBinary}.
+ */
+final class HexScanner {
+  // Exponents beyond this are saturated.  Anything this large is zero or infinity anyway.
+  private static final long MAX_EXPONENT = 1_000_000_000L;
+  // HEX_VALUES[c] is the value of the ASCII hex digit c, or -1
+  private static final byte[] HEX_VALUES = new byte[128];
+
+  static {
+    Arrays.fill(HEX_VALUES, (byte) -1);
+    for (int i = 0; i < 16; i++) {
+      HEX_VALUES["0123456789abcdef".charAt(i)] = (byte) i;
+      HEX_VALUES["0123456789ABCDEF".charAt(i)] = (byte) i;
+    }
+  }
+
+  boolean negative;
+  boolean zero;
+  long exponent; // floor(log2(|value|)), e.g. exponent = 3 for 0x1.8p+3
+  boolean powerOfTwo; // True if the value is exactly 2^exponent
+
+  /**
+   * Scans s[from, to).  Returns false if it is not a hexadecimal literal or is malformed.
+   */
+  boolean scan(CharSequence s, int from, int to) {
+    int i = from;
+    if (i < to && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+      negative = s.charAt(i) == '-';
+      i++;
+    } else {
+      negative = false;
+    }
+    if (to - i < 2 || s.charAt(i) != '0' || (s.charAt(i + 1) != 'x' && s.charAt(i + 1) != 'X')) return false;
+    i += 2;
+
+    boolean seenPoint = false;
+    boolean seenDigit = false;
+    long power = 0; // The power of 16 of the first nonzero digit
+    int leading = 0; // The first nonzero digit
+    zero = true;
+    powerOfTwo = true;
+    for (; i < to; i++) {
+      char c = s.charAt(i);
+      int b = c < 128 ? HEX_VALUES[c] : -1;
+      if (b >= 0) {
+        seenDigit = true;
+        if (zero) {
+          if (seenPoint) power--;
+          if (b != 0) {
+            zero = false;
+            leading = b;
+            powerOfTwo = (b & (b - 1)) == 0;
+          }
+        } else {
+          if (b != 0) powerOfTwo = false;
+          if (!seenPoint) power++;
+        }
+      } else if (c == '.' && !seenPoint) {
+        seenPoint = true;
+      } else if (c != '_') {
+        break;
+      }
+    }
+    if (!seenDigit) return false;
+    long p = 0;
+    if (i < to && (s.charAt(i) == 'p' || s.charAt(i) == 'P')) {
+      i++;
+      boolean negativeExp = false;
+      if (i < to && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+        negativeExp = s.charAt(i) == '-';
+        i++;
+      }
+      boolean seenExpDigit = false;
+      for (; i < to; i++) {
+        char c = s.charAt(i);
+        if (c >= '0' && c <= '9') {
+          seenExpDigit = true;
+          if (p < MAX_EXPONENT) p = 10 * p + (c - '0');
+        } else if (c != '_') {
+          return false;
+        }
+      }
+      if (!seenExpDigit) return false;
+      if (negativeExp) p = -p;
+    }
+    if (i != to) return false;
+    exponent = 4 * power + (31 - Integer.numberOfLeadingZeros(leading)) + p;
+    return true;
+  }
+}
@@ -0,0 +1,247 @@
+/**
+ * Classifies a floating point literal in a single pass with a table-driven state machine, and records
+ * where its parts are so that the conversions do not need to look for them again.
+ *
+ * <p>The grammar is that of {@link Double#valueOf(String)}: surrounding whitespace, a sign, "NaN",
+ * "Infinity", decimal and hexadecimal literals and an f, F, d or D suffix.  In addition, as
+ * elsewhere in this project, underscores may appear among the digits and the binary exponent of a
+ * hexadecimal literal may be omitted.
+ */
+final class Lexer {
+  static final int DECIMAL = 0;
+  static final int HEX = 1;
+  static final int NAN = 2;
+  static final int INFINITY = 3;
+
+  // States.  0 rejects everything.
+  static final int ERROR = 0;
+  static final int START = 1;
+  private static final int SIGN = 2;
+  private static final int ZERO = 3;
+  private static final int INTEGER = 4;
+  private static final int POINT = 5; // After integer digits
+  private static final int LEADING_POINT = 6; // Without integer digits
+  private static final int FRACTION = 7;
+  private static final int MARKER = 8;
+  private static final int EXPONENT_SIGN = 9;
+  private static final int EXPONENT = 10;
+  private static final int SUFFIX = 11;
+  private static final int TRAILING = 12;
+  private static final int HEX_PREFIX = 13;
+  private static final int HEX_INTEGER = 14;
+  private static final int HEX_POINT = 15;
+  private static final int HEX_LEADING_POINT = 16;
+  private static final int HEX_FRACTION = 17;
+  private static final int NAN_1 = 18; // "N"
+  private static final int NAN_2 = 19; // "Na"
+  private static final int NAN_3 = 20; // "NaN"
+  private static final int INFINITY_1 = 21; // "I", and so on up to "Infinity"
+  private static final int INFINITY_8 = 28;
+  private static final int LEADING_UNDERSCORE = 29; // Underscores before any digit
+  private static final int STATES = 30;
+
+  // The part of the literal each state is in
+  static final int PART_LEADING = 0;
+  static final int PART_SIGN = 1;
+  static final int PART_PREFIX = 2;
+  static final int PART_INTEGER = 3;
+  static final int PART_POINT = 4;
+  static final int PART_FRACTION = 5;
+  static final int PART_MARKER = 6;
+  static final int PART_EXPONENT = 7;
+  static final int PART_SUFFIX = 8;
+  static final int PART_TRAILING = 9;
+  static final int PART_KEYWORD = 10;
+  private static final int PARTS = 11;
+
+  private static final String DIGITS = "0123456789";
+  private static final String HEX_DIGITS = "0123456789abcdefABCDEF";
+  private static final String SUFFIXES = "fFdD";
+  private static final String WHITESPACE; // Everything up to ' ' as String.trim
+
+  // TRANSITIONS[state << 7 | c] is the next state after the ASCII char c
+  private static final byte[] TRANSITIONS = new byte[STATES << 7];
+  private static final boolean[] ACCEPTING = new boolean[STATES];
+  private static final byte[] PARTS_OF = new byte[STATES];
+
+  static {
+    StringBuilder whitespace = new StringBuilder();
+    for (char c = 0; c <= ' '; c++) whitespace.append(c);
+    WHITESPACE = whitespace.toString();
+
+    on(START, WHITESPACE, START);
+    on(START, "+-", SIGN);
+    for (int state : new int[] {START, SIGN}) {
+      on(state, "0", ZERO);
+      on(state, "123456789", INTEGER);
+      on(state, ".", LEADING_POINT);
+      on(state, "N", NAN_1);
+      on(state, "I", INFINITY_1);
+      on(state, "_", LEADING_UNDERSCORE);
+    }
+    on(LEADING_UNDERSCORE, "_", LEADING_UNDERSCORE);
+    on(LEADING_UNDERSCORE, DIGITS, INTEGER);
+    on(LEADING_UNDERSCORE, ".", LEADING_POINT);
+    on(ZERO, "xX", HEX_PREFIX);
+    for (int state : new int[] {ZERO, INTEGER}) {
+      on(state, DIGITS + "_", INTEGER);
+      on(state, ".", POINT);
+    }
+    on(POINT, "_", POINT);
+    on(LEADING_POINT, "_", LEADING_POINT);
+    on(POINT, DIGITS, FRACTION);
+    on(LEADING_POINT, DIGITS, FRACTION);
+    on(FRACTION, DIGITS + "_", FRACTION);
+    for (int state : new int[] {ZERO, INTEGER, POINT, FRACTION}) {
+      on(state, "eE", MARKER);
+      on(state, SUFFIXES, SUFFIX);
+    }
+    on(MARKER, "+-", EXPONENT_SIGN);
+    on(MARKER, "_", EXPONENT_SIGN);
+    on(EXPONENT_SIGN, "_", EXPONENT_SIGN);
+    on(MARKER, DIGITS, EXPONENT);
+    on(EXPONENT_SIGN, DIGITS, EXPONENT);
+    on(EXPONENT, DIGITS + "_", EXPONENT);
+    on(EXPONENT, SUFFIXES, SUFFIX);
+
+    on(HEX_PREFIX, "_", HEX_PREFIX);
+    on(HEX_PREFIX, HEX_DIGITS, HEX_INTEGER);
+    on(HEX_PREFIX, ".", HEX_LEADING_POINT);
+    on(HEX_INTEGER, HEX_DIGITS + "_", HEX_INTEGER);
+    on(HEX_INTEGER, ".", HEX_POINT);
+    on(HEX_POINT, "_", HEX_POINT);
+    on(HEX_LEADING_POINT, "_", HEX_LEADING_POINT);
+    on(HEX_POINT, HEX_DIGITS, HEX_FRACTION);
+    on(HEX_LEADING_POINT, HEX_DIGITS, HEX_FRACTION);
+    on(HEX_FRACTION, HEX_DIGITS + "_", HEX_FRACTION);
+    for (int state : new int[] {HEX_INTEGER, HEX_POINT, HEX_FRACTION}) on(state, "pP", MARKER);
+
+    on(NAN_1, "a", NAN_2);
+    on(NAN_2, "N", NAN_3);
+    String infinity = "Infinity";
+    for (int i = 1; i < infinity.length(); i++) on(INFINITY_1 + i - 1, infinity.substring(i, i + 1), INFINITY_1 + i);
+
+    for (int state : new int[] {ZERO, INTEGER, POINT, FRACTION, EXPONENT, SUFFIX, TRAILING, HEX_INTEGER,
+        HEX_POINT, HEX_FRACTION, NAN_3, INFINITY_8}) {
+      ACCEPTING[state] = true;
+      on(state, WHITESPACE, TRAILING);
+    }
+
+    PARTS_OF[SIGN] = PART_SIGN;
+    PARTS_OF[HEX_PREFIX] = PART_PREFIX;
+    PARTS_OF[ZERO] = PARTS_OF[INTEGER] = PARTS_OF[HEX_INTEGER] = PARTS_OF[LEADING_UNDERSCORE] = PART_INTEGER;
+    PARTS_OF[POINT] = PARTS_OF[LEADING_POINT] = PARTS_OF[HEX_POINT] = PARTS_OF[HEX_LEADING_POINT] = PART_POINT;
+    PARTS_OF[FRACTION] = PARTS_OF[HEX_FRACTION] = PART_FRACTION;
+    PARTS_OF[MARKER] = PART_MARKER;
+    PARTS_OF[EXPONENT_SIGN] = PARTS_OF[EXPONENT] = PART_EXPONENT;
+    PARTS_OF[SUFFIX] = PART_SUFFIX;
+    PARTS_OF[TRAILING] = PART_TRAILING;
+    for (int state = NAN_1; state <= INFINITY_8; state++) PARTS_OF[state] = PART_KEYWORD;
+  }
+
+  private static void on(int state, String chars, int next) {
+    for (int i = 0; i < chars.length(); i++) TRANSITIONS[state << 7 | chars.charAt(i)] = (byte) next;
+  }
+
+  // The state after c, for callers that get the literal a char at a time.  ERROR stays ERROR.
+  static int next(int state, char c) {
+    return c < 128 ? TRANSITIONS[state << 7 | c] : ERROR;
+  }
+
+  static boolean isAccepting(int state) {
+    return ACCEPTING[state];
+  }
+
+  static int partOf(int state) {
+    return PARTS_OF[state];
+  }
+
+  int kind;
+  boolean negative;
+  int start; // s[start, end) is the literal without the surrounding whitespace and the suffix
+  int end;
+  // Each part, including underscores, is s[*From, *To).  An absent part is empty at where it would be.
+  int integerFrom; // After "0x" for HEX
+  int integerTo;
+  int point; // The index of the point, or -1
+  int fractionFrom;
+  int fractionTo;
+  int marker; // The index of 'e' or 'p', or -1
+  int exponentFrom; // Including the sign
+  int exponentTo;
+  int errorOffset; // Where the input stopped matching, or to if it ended too early
+  private final int[] partFrom = new int[PARTS];
+  private final int[] partTo = new int[PARTS];
+
+  /**
+   * Classifies s[from, to).  Returns false if it is malformed, with {@link #errorOffset} set.
+   */
+  boolean lex(CharSequence s, int from, int to) {
+    for (int p = 0; p < PARTS; p++) partFrom[p] = partTo[p] = -1;
+    int state = START;
+    int part = PART_LEADING;
+    partFrom[PART_LEADING] = from;
+    for (int i = from; i < to; i++) {
+      char c = s.charAt(i);
+      int next = next(state, c);
+      if (next == ERROR) {
+        errorOffset = i;
+        return false;
+      }
+      int nextPart = PARTS_OF[next];
+      if (nextPart != part) {
+        partTo[part] = i;
+        partFrom[nextPart] = i;
+        if (nextPart == PART_PREFIX) {
+          // The "0" was not an integer part after all
+          partFrom[PART_PREFIX] = partFrom[PART_INTEGER];
+          partFrom[PART_INTEGER] = partTo[PART_INTEGER] = -1;
+        }
+        part = nextPart;
+      }
+      state = next;
+    }
+    if (!ACCEPTING[state]) {
+      errorOffset = to;
+      return false;
+    }
+    partTo[part] = to;
+
+    start = partTo[PART_LEADING];
+    negative = partFrom[PART_SIGN] >= 0 && s.charAt(partFrom[PART_SIGN]) == '-';
+    end = partFrom[PART_SUFFIX] >= 0 ? partFrom[PART_SUFFIX] : partFrom[PART_TRAILING] >= 0 ? partFrom[PART_TRAILING] : to;
+    if (partFrom[PART_KEYWORD] >= 0) {
+      kind = s.charAt(partFrom[PART_KEYWORD]) == 'N' ? NAN : INFINITY;
+      return true;
+    }
+    kind = partFrom[PART_PREFIX] >= 0 ? HEX : DECIMAL;
+    // The mantissa starts after the prefix or the sign
+    int mantissa = partTo[PART_PREFIX] >= 0 ? partTo[PART_PREFIX] : partTo[PART_SIGN] >= 0 ? partTo[PART_SIGN] : start;
+    integerFrom = partFrom[PART_INTEGER] >= 0 ? partFrom[PART_INTEGER] : mantissa;
+    integerTo = partFrom[PART_INTEGER] >= 0 ? partTo[PART_INTEGER] : mantissa;
+    point = partFrom[PART_POINT];
+    fractionFrom = partFrom[PART_FRACTION] >= 0 ? partFrom[PART_FRACTION] : point >= 0 ? partTo[PART_POINT] : integerTo;
+    fractionTo = partFrom[PART_FRACTION] >= 0 ? partTo[PART_FRACTION] : fractionFrom;
+    marker = partFrom[PART_MARKER];
+    exponentFrom = marker >= 0 ? marker + 1 : fractionTo;
+    exponentTo = marker >= 0 ? partTo[PART_EXPONENT] : fractionTo;
+    return true;
+  }
+
+  /**
+   * Classifies s[from, to), or throws an IllegalArgumentException that tells where it is malformed.
+   */
+  void lexOrThrow(CharSequence s, int from, int to) {
+    if (lex(s, from, to)) return;
+    if (errorOffset == to) {
+      throw new IllegalArgumentException("Unexpected end of the number: " + s.subSequence(from, to));
+    }
+    char c = s.charAt(errorOffset);
+    int index = errorOffset - from;
+    if (c == '.' && partFrom[PART_POINT] >= 0) {
+      throw new IllegalArgumentException("Unexpected decimal point at " + index
+          + ". There are more than one decimal points: " + s.subSequence(from, to));
+    }
+    throw new IllegalArgumentException("Unexpected char [" + c + "] at index " + index + ": " + s.subSequence(from, to));
+  }
+}
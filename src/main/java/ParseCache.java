@@ -0,0 +1,237 @@
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache in front of {@link Parser} for feeds that repeat the same literals, e.g. "0.0"
+ * or common prices.  Unlike a Parser, a ParseCache may be shared between threads.
+ *
+ * <p>The cache is set-associative: a literal can only be stored in one set of {@link #WAYS} slots,
+ * and the victim within the set is chosen by CLOCK, i.e. the first slot without the referenced bit
+ * after clearing the bits on the way.  Each set is guarded by one of {@link #STRIPES} locks.  The
+ * keys are compared with the raw chars or bytes, so a lookup does not allocate.  Literals longer
+ * than {@link #MAX_KEY_LENGTH} or with non-Latin-1 chars are parsed without caching.
+ */
+public final class ParseCache {
+  static final int MAX_KEY_LENGTH = 24;
+  static final int WAYS = 8;
+  static final int STRIPES = 64;
+  // Kinds of the cached values.  0 marks an empty slot.
+  private static final byte DOUBLE = 1;
+  private static final byte FLOAT = 2;
+
+  private final int setMask;
+  private final Object[] locks = new Object[STRIPES];
+  // Slot k of set s is at index s * WAYS + k
+  private final int[] hashes;
+  private final byte[] kinds;
+  private final byte[] lengths;
+  private final byte[] keys; // MAX_KEY_LENGTH bytes per slot
+  private final long[] values;
+  private final boolean[] referenced;
+  private final byte[] hands; // The CLOCK hand of each set
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final ThreadLocal<Parser> parsers = ThreadLocal.withInitial(Parser::new);
+
+  /**
+   * Creates a cache for at least capacity literals.  It takes about 40 bytes per literal.
+   */
+  public ParseCache(int capacity) {
+    if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    int sets = Integer.highestOneBit(Math.max(1, (capacity + WAYS - 1) / WAYS - 1)) << 1;
+    setMask = sets - 1;
+    for (int i = 0; i < STRIPES; i++) locks[i] = new Object();
+    hashes = new int[sets * WAYS];
+    kinds = new byte[sets * WAYS];
+    lengths = new byte[sets * WAYS];
+    keys = new byte[sets * WAYS * MAX_KEY_LENGTH];
+    values = new long[sets * WAYS];
+    referenced = new boolean[sets * WAYS];
+    hands = new byte[sets];
+  }
+
+  public double parseDouble(String s) {
+    return parseDouble(s, 0, s.length());
+  }
+
+  public double parseDouble(CharSequence s, int from, int to) {
+    return Double.longBitsToDouble(lookup(s, from, to, DOUBLE));
+  }
+
+  /**
+   * Parses the ASCII bytes in ascii[from, to).
+   */
+  public double parseDouble(byte[] ascii, int from, int to) {
+    return Double.longBitsToDouble(lookup(ascii, from, to, DOUBLE));
+  }
+
+  public float parseFloat(String s) {
+    return parseFloat(s, 0, s.length());
+  }
+
+  public float parseFloat(CharSequence s, int from, int to) {
+    return Float.intBitsToFloat((int) lookup(s, from, to, FLOAT));
+  }
+
+  /**
+   * Parses the ASCII bytes in ascii[from, to).
+   */
+  public float parseFloat(byte[] ascii, int from, int to) {
+    return Float.intBitsToFloat((int) lookup(ascii, from, to, FLOAT));
+  }
+
+  /**
+   * Returns the number of lookups answered from the cache.
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of lookups that had to be parsed, including the uncacheable ones.
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  // Returns the bits of the value of s[from, to) as a double or a float
+  private long lookup(CharSequence s, int from, int to, byte kind) {
+    Objects.checkFromToIndex(from, to, s.length());
+    int hash = to - from <= MAX_KEY_LENGTH ? hash(s, from, to, kind) : 0;
+    if (hash == 0) {
+      misses.increment();
+      return parse(s, from, to, kind);
+    }
+    int set = hash & setMask;
+    synchronized (locks[set & (STRIPES - 1)]) {
+      int slot = find(set, hash, kind, s, from, to);
+      if (slot >= 0) {
+        hits.increment();
+        referenced[slot] = true;
+        return values[slot];
+      }
+    }
+    misses.increment();
+    long bits = parse(s, from, to, kind);
+    synchronized (locks[set & (STRIPES - 1)]) {
+      int slot = find(set, hash, kind, s, from, to);
+      if (slot < 0) {
+        slot = evict(set, hash, kind, to - from);
+        for (int i = from; i < to; i++) keys[slot * MAX_KEY_LENGTH + i - from] = (byte) s.charAt(i);
+      }
+      values[slot] = bits;
+    }
+    return bits;
+  }
+
+  // Returns the bits of the value of ascii[from, to) as a double or a float
+  private long lookup(byte[] ascii, int from, int to, byte kind) {
+    Objects.checkFromToIndex(from, to, ascii.length);
+    int hash = to - from <= MAX_KEY_LENGTH ? hash(ascii, from, to, kind) : 0;
+    if (hash == 0) {
+      misses.increment();
+      return parse(ascii, from, to, kind);
+    }
+    int set = hash & setMask;
+    synchronized (locks[set & (STRIPES - 1)]) {
+      int slot = find(set, hash, kind, ascii, from, to);
+      if (slot >= 0) {
+        hits.increment();
+        referenced[slot] = true;
+        return values[slot];
+      }
+    }
+    misses.increment();
+    long bits = parse(ascii, from, to, kind);
+    synchronized (locks[set & (STRIPES - 1)]) {
+      int slot = find(set, hash, kind, ascii, from, to);
+      if (slot < 0) {
+        slot = evict(set, hash, kind, to - from);
+        System.arraycopy(ascii, from, keys, slot * MAX_KEY_LENGTH, to - from);
+      }
+      values[slot] = bits;
+    }
+    return bits;
+  }
+
+  private long parse(CharSequence s, int from, int to, byte kind) {
+    Parser parser = parsers.get();
+    return kind == DOUBLE
+        ? Double.doubleToRawLongBits(parser.parseDouble(s, from, to))
+        : Float.floatToRawIntBits(parser.parseFloat(s, from, to));
+  }
+
+  private long parse(byte[] ascii, int from, int to, byte kind) {
+    Parser parser = parsers.get();
+    return kind == DOUBLE
+        ? Double.doubleToRawLongBits(parser.parseDouble(ascii, from, to))
+        : Float.floatToRawIntBits(parser.parseFloat(ascii, from, to));
+  }
+
+  // Returns a nonzero hash of the key, or 0 if it has a char that does not fit in a byte
+  private static int hash(CharSequence s, int from, int to, byte kind) {
+    int h = kind;
+    for (int i = from; i < to; i++) {
+      char c = s.charAt(i);
+      if (c > 0xFF) return 0;
+      h = 31 * h + c;
+    }
+    return spread(h);
+  }
+
+  // Returns a nonzero hash of the key.  The same bytes and chars have the same hash.
+  private static int hash(byte[] ascii, int from, int to, byte kind) {
+    int h = kind;
+    for (int i = from; i < to; i++) h = 31 * h + (ascii[i] & 0xFF);
+    return spread(h);
+  }
+
+  private static int spread(int h) {
+    h ^= h >>> 16;
+    h *= 0x45d9f3b;
+    h ^= h >>> 16;
+    return h == 0 ? 1 : h;
+  }
+
+  // Returns the slot of the key in the set, or -1.  The caller must hold the lock.
+  private int find(int set, int hash, byte kind, CharSequence s, int from, int to) {
+    search:
+    for (int slot = set * WAYS; slot < (set + 1) * WAYS; slot++) {
+      if (hashes[slot] != hash || kinds[slot] != kind || lengths[slot] != to - from) continue;
+      for (int i = from; i < to; i++) {
+        if ((keys[slot * MAX_KEY_LENGTH + i - from] & 0xFF) != s.charAt(i)) continue search;
+      }
+      return slot;
+    }
+    return -1;
+  }
+
+  // Returns the slot of the key in the set, or -1.  The caller must hold the lock.
+  private int find(int set, int hash, byte kind, byte[] ascii, int from, int to) {
+    search:
+    for (int slot = set * WAYS; slot < (set + 1) * WAYS; slot++) {
+      if (hashes[slot] != hash || kinds[slot] != kind || lengths[slot] != to - from) continue;
+      for (int i = from; i < to; i++) {
+        if (keys[slot * MAX_KEY_LENGTH + i - from] != ascii[i]) continue search;
+      }
+      return slot;
+    }
+    return -1;
+  }
+
+  // Picks a slot in the set by CLOCK and claims it for the key, except for its bytes and value.
+  // The caller must hold the lock.
+  private int evict(int set, int hash, byte kind, int length) {
+    int slot;
+    while (true) {
+      slot = set * WAYS + hands[set];
+      hands[set] = (byte) ((hands[set] + 1) % WAYS);
+      if (!referenced[slot]) break;
+      referenced[slot] = false;
+    }
+    hashes[slot] = hash;
+    kinds[slot] = kind;
+    lengths[slot] = (byte) length;
+    return slot;
+  }
+}
@@ -0,0 +1,82 @@
+/**
+ * The outcome of a {@link Parser} call that reports failures with a status instead of an exception,
+ * so that a caller can reuse one instance and parse without allocating.
+ */
+public final class ParseResult {
+  public static final int OK = 0;
+  // The value does not fit in the result type
+  public static final int OVERFLOW = 1;
+  // The value has more fraction digits than the scale.  The value is truncated toward zero.
+  public static final int INEXACT = 2;
+  public static final int MALFORMED = 3;
+
+  private int status;
+  private long longValue;
+  private double doubleValue;
+  private int errorOffset = -1;
+
+  public int status() {
+    return status;
+  }
+
+  public boolean isOk() {
+    return status == OK;
+  }
+
+  /**
+   * Returns the value of {@link Parser#parseScaledLong}.  It is undefined unless the status is OK
+   * or INEXACT.
+   */
+  public long longValue() {
+    return longValue;
+  }
+
+  /**
+   * Returns the value of {@link Parser#tryParseDouble}.  It is undefined unless the status is OK.
+   */
+  public double doubleValue() {
+    return doubleValue;
+  }
+
+  /**
+   * Returns the value of {@link Parser#tryParseFloat}.  It is undefined unless the status is OK.
+   */
+  public float floatValue() {
+    return (float) doubleValue;
+  }
+
+  /**
+   * Returns the index in the input where it stopped being a number, which is the end of the input
+   * if it ended too early.  It is -1 unless the status is MALFORMED, and also if the position is
+   * not known.
+   */
+  public int errorOffset() {
+    return errorOffset;
+  }
+
+  int set(int status, long longValue) {
+    this.status = status;
+    this.longValue = longValue;
+    errorOffset = -1;
+    return status;
+  }
+
+  // Every float is exactly a double
+  int set(double doubleValue) {
+    status = OK;
+    this.doubleValue = doubleValue;
+    errorOffset = -1;
+    return status;
+  }
+
+  int setMalformed(int errorOffset) {
+    status = MALFORMED;
+    this.errorOffset = errorOffset;
+    return status;
+  }
+
+  @Override public String toString() {
+    return "ParseResult{status=" + status + ", longValue=" + longValue + ", doubleValue=" + doubleValue
+        + ", errorOffset=" + errorOffset + '}';
+  }
+}
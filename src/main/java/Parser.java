@@ -1,19 +1,458 @@
+import java.util.Objects;
+
 public class Parser {
+  // 10^0 to 10^18, also used by DigitComparison
+  static final long[] POWERS_OF_TEN = new long[19];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) POWERS_OF_TEN[i] = 10 * POWERS_OF_TEN[i - 1];
+  }
+
+  // Reused across calls, so a Parser must not be shared between threads.
+  private final DecimalScanner scanner = new DecimalScanner();
+  private final HexScanner hexScanner = new HexScanner();
+  private final Lexer lexer = new Lexer();
+  private final DigitComparison digitComparison = new DigitComparison();
+  private final CharArraySequence charView = new CharArraySequence();
+  private final AsciiSequence asciiView = new AsciiSequence();
+  // What the last parse did, for ParserStats
+  private ParserStats.Path path;
+  private int digitCount;
+  private int stepCount;
+  private final ParseResult scaledResult = new ParseResult();
+
   public float parseFloat(String s) {
-    BigNumber d = BigNumber.parse(s);
+    return parseFloat(s, 0, s.length());
+  }
+
+  /**
+   * Parses chars[from, to) without copying it into a String.
+   */
+  public float parseFloat(char[] chars, int from, int to) {
+    charView.reset(chars);
+    try {
+      return parseFloat(charView, from, to);
+    } finally {
+      charView.reset(null);
+    }
+  }
+
+  /**
+   * Parses the ASCII bytes in ascii[from, to) without decoding them into a String.
+   */
+  public float parseFloat(byte[] ascii, int from, int to) {
+    asciiView.reset(ascii);
+    try {
+      return parseFloat(asciiView, from, to);
+    } finally {
+      asciiView.reset(null);
+    }
+  }
+
+  /**
+   * Parses s[from, to) in place.  No intermediate objects are allocated unless the input needs
+   * the {@link BigNumber} conversion.
+   */
+  public float parseFloat(CharSequence s, int from, int to) {
+    Objects.checkFromToIndex(from, to, s.length());
+    if (!ParserStats.enabled) return toFloat(s, from, to);
+    long start = System.nanoTime();
+    float v = toFloat(s, from, to);
+    record(start, to - from, v != 0 && Math.abs(v) < Float.MIN_NORMAL, true);
+    return v;
+  }
+
+  /**
+   * Parses s[from, to) like {@link #parseFloat(CharSequence, int, int)} and stores the value into
+   * result.  Malformed input is reported with the MALFORMED status and the error offset instead of
+   * an exception, so nothing is allocated in either case unless the input needs the
+   * {@link BigNumber} conversion.  Returns the status, which is also stored into result.
+   */
+  public int tryParseFloat(CharSequence s, int from, int to, ParseResult result) {
+    Objects.checkFromToIndex(from, to, s.length());
+    if (!ParserStats.enabled) return tryToFloat(s, from, to, result);
+    long start = System.nanoTime();
+    int status = tryToFloat(s, from, to, result);
+    if (status == ParseResult.OK) {
+      float v = result.floatValue();
+      record(start, to - from, v != 0 && Math.abs(v) < Float.MIN_NORMAL, true);
+    }
+    return status;
+  }
+
+  public int tryParseFloat(char[] chars, int from, int to, ParseResult result) {
+    charView.reset(chars);
+    try {
+      return tryParseFloat(charView, from, to, result);
+    } finally {
+      charView.reset(null);
+    }
+  }
+
+  public int tryParseFloat(byte[] ascii, int from, int to, ParseResult result) {
+    asciiView.reset(ascii);
+    try {
+      return tryParseFloat(asciiView, from, to, result);
+    } finally {
+      asciiView.reset(null);
+    }
+  }
+
+  private float toFloat(CharSequence s, int from, int to) {
+    digitCount = -1;
+    stepCount = -1;
+    if (scanner.scan(s, from, to)) return scannedToFloat(s, from, to);
+    path = ParserStats.Path.BIG_NUMBER;
+    lexer.lexOrThrow(s, from, to);
+    return lexedToFloat(s);
+  }
+
+  private int tryToFloat(CharSequence s, int from, int to, ParseResult result) {
+    digitCount = -1;
+    stepCount = -1;
+    if (scanner.scan(s, from, to)) return result.set(scannedToFloat(s, from, to));
+    path = ParserStats.Path.BIG_NUMBER;
+    if (!lexer.lex(s, from, to)) return result.setMalformed(lexer.errorOffset);
+    return result.set(lexedToFloat(s));
+  }
+
+  // Converts the input that the lexer has just accepted.  It is anything the fast scanner does not
+  // take: whitespace, a suffix, NaN, Infinity, hex and so on.
+  private float lexedToFloat(CharSequence s) {
+    if (lexer.kind == Lexer.NAN || lexer.kind == Lexer.INFINITY) {
+      path = ParserStats.Path.EARLY_OUT;
+      if (lexer.kind == Lexer.NAN) return Float.NaN;
+      return lexer.negative ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+    }
+    int from = lexer.start;
+    int to = lexer.end;
+    if (lexer.kind == Lexer.DECIMAL) {
+      if (scanner.scan(s, from, to)) return scannedToFloat(s, from, to);
+      return toFloat(new BigDecimal(s, lexer));
+    }
+    if (hexScanner.scan(s, from, to)) {
+      path = ParserStats.Path.HEX;
+      // The value is in [2^e2, 2^(e2 + 1)).  2^-150 is the halfway point between zero and the smallest subnormal.
+      long e2 = hexScanner.exponent;
+      if (hexScanner.zero || e2 < -150 || (e2 == -150 && hexScanner.powerOfTwo)) {
+        return hexScanner.negative ? -0.0f : 0.0f;
+      }
+      if (e2 == -150) return hexScanner.negative ? -Float.MIN_VALUE : Float.MIN_VALUE;
+      if (e2 >= 128) return hexScanner.negative ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+    }
+    return toFloat(new BigBinary(s, lexer));
+  }
+
+  /**
+   * Parses ascii[from, to) whose decimal point and exponent marker are already known to be at point
+   * and marker, or -1 if absent, e.g. as found by {@link BoundaryScanner}.  All the other bytes must
+   * be digits except for a sign at from and right after the marker.
+   */
+  float parseFloat(byte[] ascii, int from, int to, int point, int marker) {
+    Objects.checkFromToIndex(from, to, ascii.length);
+    asciiView.reset(ascii);
+    try {
+      if (!ParserStats.enabled) return plainToFloat(ascii, from, to, point, marker);
+      long start = System.nanoTime();
+      float v = plainToFloat(ascii, from, to, point, marker);
+      record(start, to - from, v != 0 && Math.abs(v) < Float.MIN_NORMAL, true);
+      return v;
+    } finally {
+      asciiView.reset(null);
+    }
+  }
+
+  private float plainToFloat(byte[] ascii, int from, int to, int point, int marker) {
+    if (!scanner.scan(ascii, from, to, point, marker)) return toFloat(asciiView, from, to);
+    stepCount = -1;
+    return scannedToFloat(asciiView, from, to);
+  }
+
+  // Converts s[from, to) that the scanner has just read
+  private float scannedToFloat(CharSequence s, int from, int to) {
+    digitCount = scanner.truncated ? ParserStats.MAX_DIGITS + 1 : scanner.digits;
+    path = ParserStats.Path.EARLY_OUT;
+    // The value is in [10^e10, 10^(e10 + 1)).  The smallest subnormal is 1.4e-45.
+    long e10 = (long) scanner.digits - 1 + scanner.exponent;
+    if (scanner.significand == 0 || e10 < -46) return scanner.negative ? -0.0f : 0.0f;
+    if (e10 > 38) return scanner.negative ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+    if (!scanner.truncated && Clinger.isExactFloat(scanner.significand, scanner.exponent)) {
+      path = ParserStats.Path.CLINGER;
+      float f = Clinger.toFloat(scanner.significand, scanner.exponent);
+      return scanner.negative ? -f : f;
+    }
+    long bits = scanner.truncated ? EiselLemire.FAILED
+        : EiselLemireFloat.toFloatBits(scanner.significand, scanner.exponent);
+    if (bits == EiselLemire.FAILED) bits = EiselLemire.toFloatBits(scanner.significand, scanner.exponent);
+    if (bits != EiselLemire.FAILED) {
+      path = ParserStats.Path.EISEL_LEMIRE;
+      // If some digits were dropped, the answer is only certain when both ends of the range agree.
+      // Otherwise compare all the digits with the halfway point.
+      if (scanner.truncated && EiselLemire.toFloatBits(scanner.significand + 1, scanner.exponent) != bits) {
+        path = ParserStats.Path.DIGIT_COMPARISON;
+        bits = digitComparison.toFloatBits(s, scanner, bits);
+      }
+      int sign = scanner.negative ? 1 : 0;
+      return Float.intBitsToFloat((int) bits | (sign << 31));
+    }
+    path = ParserStats.Path.BIG_NUMBER;
+    return toFloat(toBigNumber(s, from, to));
+  }
+
+  private BigNumber toBigNumber(CharSequence s, int from, int to) {
+    lexer.lexOrThrow(s, from, to);
+    return BigNumber.parse(s, lexer);
+  }
+
+  public double parseDouble(String s) {
+    return parseDouble(s, 0, s.length());
+  }
+
+  /**
+   * Parses chars[from, to) without copying it into a String.
+   */
+  public double parseDouble(char[] chars, int from, int to) {
+    charView.reset(chars);
+    try {
+      return parseDouble(charView, from, to);
+    } finally {
+      charView.reset(null);
+    }
+  }
+
+  /**
+   * Parses the ASCII bytes in ascii[from, to) without decoding them into a String.
+   */
+  public double parseDouble(byte[] ascii, int from, int to) {
+    asciiView.reset(ascii);
+    try {
+      return parseDouble(asciiView, from, to);
+    } finally {
+      asciiView.reset(null);
+    }
+  }
+
+  /**
+   * Parses s[from, to) in place.  No intermediate objects are allocated unless the input needs
+   * the {@link BigNumber} conversion.
+   */
+  public double parseDouble(CharSequence s, int from, int to) {
+    Objects.checkFromToIndex(from, to, s.length());
+    if (!ParserStats.enabled) return toDouble(s, from, to);
+    long start = System.nanoTime();
+    double v = toDouble(s, from, to);
+    record(start, to - from, v != 0 && Math.abs(v) < Double.MIN_NORMAL, false);
+    return v;
+  }
+
+  /**
+   * Parses s[from, to) like {@link #parseDouble(CharSequence, int, int)} and stores the value into
+   * result.  Malformed input is reported with the MALFORMED status and the error offset instead of
+   * an exception, so nothing is allocated in either case unless the input needs the
+   * {@link BigNumber} conversion.  Returns the status, which is also stored into result.
+   */
+  public int tryParseDouble(CharSequence s, int from, int to, ParseResult result) {
+    Objects.checkFromToIndex(from, to, s.length());
+    if (!ParserStats.enabled) return tryToDouble(s, from, to, result);
+    long start = System.nanoTime();
+    int status = tryToDouble(s, from, to, result);
+    if (status == ParseResult.OK) {
+      double v = result.doubleValue();
+      record(start, to - from, v != 0 && Math.abs(v) < Double.MIN_NORMAL, false);
+    }
+    return status;
+  }
+
+  public int tryParseDouble(char[] chars, int from, int to, ParseResult result) {
+    charView.reset(chars);
+    try {
+      return tryParseDouble(charView, from, to, result);
+    } finally {
+      charView.reset(null);
+    }
+  }
+
+  public int tryParseDouble(byte[] ascii, int from, int to, ParseResult result) {
+    asciiView.reset(ascii);
+    try {
+      return tryParseDouble(asciiView, from, to, result);
+    } finally {
+      asciiView.reset(null);
+    }
+  }
+
+  private double toDouble(CharSequence s, int from, int to) {
+    digitCount = -1;
+    stepCount = -1;
+    if (scanner.scan(s, from, to)) return scannedToDouble(s, from, to);
+    path = ParserStats.Path.BIG_NUMBER;
+    lexer.lexOrThrow(s, from, to);
+    return lexedToDouble(s);
+  }
+
+  private int tryToDouble(CharSequence s, int from, int to, ParseResult result) {
+    digitCount = -1;
+    stepCount = -1;
+    if (scanner.scan(s, from, to)) return result.set(scannedToDouble(s, from, to));
+    path = ParserStats.Path.BIG_NUMBER;
+    if (!lexer.lex(s, from, to)) return result.setMalformed(lexer.errorOffset);
+    return result.set(lexedToDouble(s));
+  }
+
+  // The double version of lexedToFloat
+  private double lexedToDouble(CharSequence s) {
+    if (lexer.kind == Lexer.NAN || lexer.kind == Lexer.INFINITY) {
+      path = ParserStats.Path.EARLY_OUT;
+      if (lexer.kind == Lexer.NAN) return Double.NaN;
+      return lexer.negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    }
+    int from = lexer.start;
+    int to = lexer.end;
+    if (lexer.kind == Lexer.DECIMAL) {
+      if (scanner.scan(s, from, to)) return scannedToDouble(s, from, to);
+      return toDouble(new BigDecimal(s, lexer));
+    }
+    if (hexScanner.scan(s, from, to)) {
+      path = ParserStats.Path.HEX;
+      // The value is in [2^e2, 2^(e2 + 1)).  2^-1075 is the halfway point between zero and the smallest subnormal.
+      long e2 = hexScanner.exponent;
+      if (hexScanner.zero || e2 < -1075 || (e2 == -1075 && hexScanner.powerOfTwo)) {
+        return hexScanner.negative ? -0.0 : 0.0;
+      }
+      if (e2 == -1075) return hexScanner.negative ? -Double.MIN_VALUE : Double.MIN_VALUE;
+      if (e2 >= 1024) return hexScanner.negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    }
+    return toDouble(new BigBinary(s, lexer));
+  }
+
+  /**
+   * Parses ascii[from, to) whose decimal point and exponent marker are already known to be at point
+   * and marker, or -1 if absent, e.g. as found by {@link BoundaryScanner}.  All the other bytes must
+   * be digits except for a sign at from and right after the marker.
+   */
+  double parseDouble(byte[] ascii, int from, int to, int point, int marker) {
+    Objects.checkFromToIndex(from, to, ascii.length);
+    asciiView.reset(ascii);
+    try {
+      if (!ParserStats.enabled) return plainToDouble(ascii, from, to, point, marker);
+      long start = System.nanoTime();
+      double v = plainToDouble(ascii, from, to, point, marker);
+      record(start, to - from, v != 0 && Math.abs(v) < Double.MIN_NORMAL, false);
+      return v;
+    } finally {
+      asciiView.reset(null);
+    }
+  }
+
+  private double plainToDouble(byte[] ascii, int from, int to, int point, int marker) {
+    if (!scanner.scan(ascii, from, to, point, marker)) return toDouble(asciiView, from, to);
+    stepCount = -1;
+    return scannedToDouble(asciiView, from, to);
+  }
+
+  // Converts s[from, to) that the scanner has just read
+  private double scannedToDouble(CharSequence s, int from, int to) {
+    digitCount = scanner.truncated ? ParserStats.MAX_DIGITS + 1 : scanner.digits;
+    path = ParserStats.Path.EARLY_OUT;
+    // The value is in [10^e10, 10^(e10 + 1)).  The smallest subnormal is 4.9e-324.
+    long e10 = (long) scanner.digits - 1 + scanner.exponent;
+    if (scanner.significand == 0 || e10 < -324) return scanner.negative ? -0.0 : 0.0;
+    if (e10 > 308) return scanner.negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    if (!scanner.truncated && Clinger.isExactDouble(scanner.significand, scanner.exponent)) {
+      path = ParserStats.Path.CLINGER;
+      double d = Clinger.toDouble(scanner.significand, scanner.exponent);
+      return scanner.negative ? -d : d;
+    }
+    long bits = EiselLemire.toDoubleBits(scanner.significand, scanner.exponent);
+    if (bits != EiselLemire.FAILED) {
+      path = ParserStats.Path.EISEL_LEMIRE;
+      // If some digits were dropped, the answer is only certain when both ends of the range agree.
+      // Otherwise compare all the digits with the halfway point.
+      if (scanner.truncated && EiselLemire.toDoubleBits(scanner.significand + 1, scanner.exponent) != bits) {
+        path = ParserStats.Path.DIGIT_COMPARISON;
+        bits = digitComparison.toDoubleBits(s, scanner, bits);
+      }
+      long sign = scanner.negative ? 1 : 0;
+      return Double.longBitsToDouble(bits | (sign << 63));
+    }
+    path = ParserStats.Path.BIG_NUMBER;
+    return toDouble(toBigNumber(s, from, to));
+  }
+
+  /**
+   * Parses s as a decimal and returns it times 10^scale, e.g. 12345 for "123.45" with scale 2.
+   *
+   * @throws IllegalArgumentException if s is malformed, the result does not fit in a long, or s has
+   * more than scale fraction digits
+   */
+  public long parseScaledLong(CharSequence s, int scale) {
+    switch (parseScaledLong(s, 0, s.length(), scale, scaledResult)) {
+      case ParseResult.OK:
+        return scaledResult.longValue();
+      case ParseResult.OVERFLOW:
+        throw new IllegalArgumentException("Out of the range of long with scale " + scale + ": " + s);
+      case ParseResult.INEXACT:
+        throw new IllegalArgumentException("More than " + scale + " fraction digits: " + s);
+      default:
+        throw new IllegalArgumentException("Not a decimal number: " + s);
+    }
+  }
+
+  /**
+   * Parses s[from, to) as a decimal and stores it times 10^scale into result.  Returns the status,
+   * which is also stored into result.  Only the integer arithmetic on the scanned significand is
+   * used, so the result is exact and nothing is allocated.
+   */
+  public int parseScaledLong(CharSequence s, int from, int to, int scale, ParseResult result) {
+    Objects.checkFromToIndex(from, to, s.length());
+    if (!scanner.scan(s, from, to)) return result.set(ParseResult.MALFORMED, 0);
+    long w = scanner.significand; // Unsigned, less than 10^19
+    long e = (long) scanner.exponent + scale;
+    // The magnitude of Long.MIN_VALUE is 2^63
+    long limit = scanner.negative ? Long.MIN_VALUE : Long.MAX_VALUE;
+    // Dropped digits are always below the unit when the value fits
+    int status = scanner.truncated ? ParseResult.INEXACT : ParseResult.OK;
+    if (w == 0) return result.set(status, 0);
+    if (e >= 0) {
+      if (e >= POWERS_OF_TEN.length || Long.compareUnsigned(w, Long.divideUnsigned(limit, POWERS_OF_TEN[(int) e])) > 0) {
+        return result.set(ParseResult.OVERFLOW, 0);
+      }
+      w *= POWERS_OF_TEN[(int) e];
+    } else if (-e >= POWERS_OF_TEN.length) {
+      return result.set(ParseResult.INEXACT, 0);
+    } else {
+      long p = POWERS_OF_TEN[(int) -e];
+      if (Long.remainderUnsigned(w, p) != 0) status = ParseResult.INEXACT;
+      w = Long.divideUnsigned(w, p);
+    }
+    return result.set(status, scanner.negative ? -w : w);
+  }
+
+  private void record(long startNanos, int length, boolean subnormal, boolean isFloat) {
+    ParserStats.record(path, digitCount, stepCount, subnormal, startNanos, length, isFloat);
+  }
+
+  private float toFloat(BigNumber d) {
     int sign = d.isNegative() ? 1 : 0;
     if (d.isZero()) {
       return Float.intBitsToFloat(sign << 31);
     }
-    int mantissa = 0;
-    int exponent = 0;
+    int exponent = d.binaryExponentEstimate();
+    // The estimate may be off by one
+    if (exponent > 128) return d.isNegative() ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+    if (exponent < -151) return Float.intBitsToFloat(sign << 31);
+    d.scaleByPowerOfTwo(-exponent);
+    stepCount = 1;
     while (d.isEqualToOrGreaterThanTwo()) {
       d.divideByTwo();
       exponent++;
+      stepCount++;
     }
     while (d.isLessThanOne()) {
       d.multiplyByTwo();
       exponent--;
+      stepCount++;
     }
     if (exponent > 127) return d.isNegative() ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
     if (exponent >= -126) {
@@ -22,33 +461,17 @@ public class Parser {
     } else {
       // subnormal
       // shift the number so that it is in 0.xx..xE-126 format
-      while (exponent < -126) {
-        d.divideByTwo();
-        exponent++;
-      }
+      d.scaleByPowerOfTwo(exponent + 126);
+      stepCount++;
       exponent = 0;
     }
-    d.discardNumberPart();
-    for (int i = 22; i >= 0; i--) {
-      d.multiplyByTwo();
-      if (!d.isLessThanOne()) {
-        mantissa |= 1 << i;
-        d.discardNumberPart();
-      }
-    }
+    long fraction = d.fractionBits(23);
+    int mantissa = (int) (fraction >>> 2);
     // Round to nearest (even)
-    if (!d.isZero()) {
-      d.multiplyByTwo();
-      if (!d.isLessThanOne()) {
-        d.discardNumberPart();
-        if (d.isZero()) {
-          // Just at the middle of the floating point numbers.  Round to even.
-          if ((mantissa & 1) == 1) {
-            mantissa++;
-          }
-        } else {
-          mantissa++;
-        }
+    if ((fraction & 2) != 0) {
+      // Round down only if it is just at the middle of the floating point numbers and the mantissa is even.
+      if ((fraction & 1) != 0 || (mantissa & 1) == 1) {
+        mantissa++;
         if (mantissa == 0x800000) {
           // The mantissa is out of the range.  The exponent needs to be incremented.
           mantissa = 0;
@@ -64,21 +487,26 @@ public class Parser {
     return Float.intBitsToFloat(bits);
   }
 
-  public double parseDouble(String s) {
-    BigNumber d = BigNumber.parse(s);
+  private double toDouble(BigNumber d) {
     long sign = d.isNegative() ? 1 : 0;
     if (d.isZero()) {
       return Double.longBitsToDouble(sign << 63);
     }
-    long mantissa = 0;
-    long exponent = 0;
+    long exponent = d.binaryExponentEstimate();
+    // The estimate may be off by one
+    if (exponent > 1024) return d.isNegative() ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+    if (exponent < -1076) return Double.longBitsToDouble(sign << 63);
+    d.scaleByPowerOfTwo((int) -exponent);
+    stepCount = 1;
     while (d.isEqualToOrGreaterThanTwo()) {
       d.divideByTwo();
       exponent++;
+      stepCount++;
     }
     while (d.isLessThanOne()) {
       d.multiplyByTwo();
       exponent--;
+      stepCount++;
     }
     if (exponent > 1023) return d.isNegative() ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
     if (exponent >= -1022) {
@@ -87,33 +515,17 @@ public class Parser {
     } else {
       // subnormal
       // shift the number so that it is in 0.xx..xE-1022 format
-      while (exponent < -1022) {
-        d.divideByTwo();
-        exponent++;
-      }
+      d.scaleByPowerOfTwo((int) (exponent + 1022));
+      stepCount++;
       exponent = 0;
     }
-    d.discardNumberPart();
-    for (int i = 51; i >= 0; i--) {
-      d.multiplyByTwo();
-      if (!d.isLessThanOne()) {
-        mantissa |= 1L << i;
-        d.discardNumberPart();
-      }
-    }
+    long fraction = d.fractionBits(52);
+    long mantissa = (fraction >>> 2);
     // Round to nearest (even)
-    if (!d.isZero()) {
-      d.multiplyByTwo();
-      if (!d.isLessThanOne()) {
-        d.discardNumberPart();
-        if (d.isZero()) {
-          // Just at the middle of the floating point numbers.  Round to even.
-          if ((mantissa & 1) == 1) {
-            mantissa++;
-          }
-        } else {
-          mantissa++;
-        }
+    if ((fraction & 2) != 0) {
+      // Round down only if it is just at the middle of the floating point numbers and the mantissa is even.
+      if ((fraction & 1) != 0 || (mantissa & 1) == 1) {
+        mantissa++;
         if (mantissa == 0x10000000000000L) {
           // The mantissa is out of the range.  The exponent needs to be incremented.
           mantissa = 0;
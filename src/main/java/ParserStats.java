@@ -0,0 +1,148 @@
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Counts which path each {@link Parser} call takes, for all the Parsers in the JVM.  It is disabled
+ * by default, and then a parse only reads {@link #enabled} and a few fields of the Parser are
+ * written.  The counters are LongAdders, so Parsers on different threads do not contend.
+ *
+ * <p>A parse that takes at least the threshold given to {@link #enable(long)} is also reported to
+ * JDK Flight Recorder as a {@link SlowParse} event while a recording is running.
+ */
+public final class ParserStats {
+  /**
+   * The path that decided the result.  CLINGER and EISEL_LEMIRE are the fast paths, and
+   * DIGIT_COMPARISON and BIG_NUMBER the slow ones.
+   */
+  public enum Path {
+    EARLY_OUT, // NaN, Infinity, or zero or infinity judged from the decimal exponent alone
+    CLINGER,
+    EISEL_LEMIRE,
+    DIGIT_COMPARISON,
+    BIG_NUMBER,
+    HEX,
+  }
+
+  // Significant digits above this go to the last bucket of the digit histogram
+  static final int MAX_DIGITS = 19;
+  // BigNumber steps of this or more go to the last bucket of the step histogram
+  static final int MAX_STEPS = 32;
+
+  static volatile boolean enabled;
+  private static volatile long slowParseNanos = Long.MAX_VALUE;
+  private static final LongAdder[] paths = newAdders(Path.values().length);
+  private static final LongAdder subnormals = new LongAdder();
+  private static final LongAdder[] digits = newAdders(MAX_DIGITS + 2);
+  private static final LongAdder[] steps = newAdders(MAX_STEPS + 1);
+
+  private ParserStats() {
+  }
+
+  /**
+   * Starts counting.  Parses that take slowParseNanos or more are reported to Flight Recorder;
+   * pass Long.MAX_VALUE to report none.
+   */
+  public static void enable(long slowParseNanos) {
+    if (slowParseNanos < 0) throw new IllegalArgumentException("Negative threshold: " + slowParseNanos);
+    ParserStats.slowParseNanos = slowParseNanos;
+    enabled = true;
+  }
+
+  public static void disable() {
+    enabled = false;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void reset() {
+    for (LongAdder adder : paths) adder.reset();
+    subnormals.reset();
+    for (LongAdder adder : digits) adder.reset();
+    for (LongAdder adder : steps) adder.reset();
+  }
+
+  public static long count(Path path) {
+    return paths[path.ordinal()].sum();
+  }
+
+  /**
+   * Returns the number of parses whose result is a nonzero subnormal number.
+   */
+  public static long subnormalCount() {
+    return subnormals.sum();
+  }
+
+  /**
+   * Returns the number of decimal parses by the number of significant digits.  The last element
+   * counts those with more than 19 digits.
+   */
+  public static long[] digitHistogram() {
+    return sums(digits);
+  }
+
+  /**
+   * Returns the number of BIG_NUMBER parses by the number of multiplications and divisions by powers
+   * of two.  The last element counts those with 32 steps or more.
+   */
+  public static long[] stepHistogram() {
+    return sums(steps);
+  }
+
+  // digitCount is -1 if the input was not scanned as a decimal, and stepCount is -1 if no BigNumber was used
+  static void record(Path path, int digitCount, int stepCount, boolean subnormal, long startNanos,
+      int length, boolean isFloat) {
+    long nanos = System.nanoTime() - startNanos;
+    paths[path.ordinal()].increment();
+    if (subnormal) subnormals.increment();
+    if (digitCount >= 0) digits[Math.min(digitCount, MAX_DIGITS + 1)].increment();
+    if (stepCount >= 0) steps[Math.min(stepCount, MAX_STEPS)].increment();
+    if (nanos >= slowParseNanos) {
+      SlowParse event = new SlowParse();
+      if (event.isEnabled()) {
+        event.parseTime = nanos;
+        event.length = length;
+        event.type = isFloat ? "float" : "double";
+        event.path = path.name();
+        event.commit();
+      }
+    }
+  }
+
+  private static LongAdder[] newAdders(int n) {
+    LongAdder[] adders = new LongAdder[n];
+    for (int i = 0; i < n; i++) adders[i] = new LongAdder();
+    return adders;
+  }
+
+  private static long[] sums(LongAdder[] adders) {
+    long[] sums = new long[adders.length];
+    for (int i = 0; i < adders.length; i++) sums[i] = adders[i].sum();
+    return sums;
+  }
+
+  @Name("Parser.SlowParse")
+  @Label("Slow Parse")
+  @Category("Parser")
+  @Description("A parse that took longer than the threshold given to ParserStats.enable")
+  static final class SlowParse extends Event {
+    @Label("Parse Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long parseTime;
+
+    @Label("Input Length")
+    int length;
+
+    @Label("Type")
+    String type;
+
+    @Label("Path")
+    String path;
+  }
+}
@@ -0,0 +1,189 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Push-style parser for numbers that arrive in arbitrary chunks, e.g. from a network socket.  The
+ * numbers are separated by the same delimiters as in {@link BulkParser}, and a number may be split
+ * across chunks.  Each completed number is passed to the consumer as a primitive double.
+ *
+ * <p>The state between chunks is bounded.  A number longer than {@link #MAX_PENDING} bytes is run
+ * through the {@link Lexer} state machine a byte at a time instead, and only its sign, up to
+ * {@link BigDecimal#MAX_DIGITS} significant digits, whether any later digit is nonzero, the exponent
+ * and how far the dropped digits shift it are kept, which is all {@link Parser} looks at.
+ */
+public class StreamingParser {
+  static final int MAX_PENDING = 1024;
+
+  private final Parser parser = new Parser();
+  private final DoubleConsumer consumer;
+  // The bytes of the number seen so far.  Reused across numbers so that feeding does not allocate.
+  private byte[] pending = new byte[64];
+  private int length;
+  private long position; // Number of bytes fed so far
+  private long start; // Offset of the pending number
+
+  // Set once the pending number is longer than MAX_PENDING.  pending then holds the sign, "0x" and
+  // the significant digits only, and the value is those digits as an integer times radix^scale,
+  // times 10 or 2 to the exponent.
+  private boolean compact;
+  private long consumed; // Bytes of the number consumed in the compact form
+  private int state; // Of the Lexer
+  private char keyword; // 'N' or 'I' for NaN or Infinity
+  private boolean hex;
+  private int digits;
+  private boolean sticky;
+  private long scale;
+  private boolean exponentNegative;
+  private long exponent; // Saturated like in BigDecimal
+
+  public StreamingParser(DoubleConsumer consumer) {
+    this.consumer = consumer;
+  }
+
+  /**
+   * Consumes all the remaining bytes of the chunk.
+   *
+   * @throws BulkParseException if a number is malformed
+   */
+  public void feed(ByteBuffer chunk) {
+    while (chunk.hasRemaining()) {
+      byte b = chunk.get();
+      long offset = position++;
+      if (!BulkParser.isDelimiter(b)) {
+        if (compact) {
+          compact(b);
+        } else if (length < pending.length) {
+          if (length == 0) start = offset;
+          pending[length++] = b;
+        } else if (length < MAX_PENDING) {
+          pending = Arrays.copyOf(pending, 2 * length);
+          pending[length++] = b;
+        } else {
+          startCompact();
+          compact(b);
+        }
+      } else if (length > 0 || compact) {
+        emit();
+      }
+    }
+  }
+
+  /**
+   * Emits the last number if the input did not end with a delimiter.
+   *
+   * @throws BulkParseException if the number is malformed
+   */
+  public void finish() {
+    if (length > 0 || compact) emit();
+  }
+
+  private void emit() {
+    double d;
+    try {
+      if (compact) finishCompact();
+      d = parser.parseDouble(pending, 0, length);
+    } catch (RuntimeException e) {
+      length = 0;
+      compact = false;
+      throw new BulkParseException("Malformed number at byte offset " + start, start, e);
+    }
+    length = 0;
+    compact = false;
+    consumer.accept(d);
+  }
+
+  // Rewrites the pending bytes in the compact form.  Each byte is written at most once and never
+  // ahead of where it is read, so this is done in place.
+  private void startCompact() {
+    compact = true;
+    consumed = 0;
+    state = Lexer.START;
+    keyword = 0;
+    hex = sticky = exponentNegative = false;
+    digits = 0;
+    scale = 0;
+    exponent = 0;
+    int n = length;
+    length = 0;
+    for (int i = 0; i < n; i++) compact(pending[i]);
+  }
+
+  // Whether the input is well-formed is up to the Lexer.  Only the digits are handled here.
+  private void compact(byte b) {
+    consumed++;
+    char c = (char) (b & 0xFF);
+    int part = Lexer.partOf(state);
+    state = Lexer.next(state, c);
+    if (state == Lexer.ERROR) return;
+    int nextPart = Lexer.partOf(state);
+    if (nextPart == Lexer.PART_SIGN) {
+      pending[length++] = b;
+    } else if (nextPart == Lexer.PART_PREFIX && part != Lexer.PART_PREFIX) {
+      // The zero read before was the start of "0x"
+      hex = true;
+      pending[length++] = '0';
+      pending[length++] = 'x';
+    } else if (nextPart == Lexer.PART_KEYWORD && part != Lexer.PART_KEYWORD) {
+      keyword = c;
+    } else if ((nextPart == Lexer.PART_INTEGER || nextPart == Lexer.PART_FRACTION) && c != '_') {
+      boolean fraction = nextPart == Lexer.PART_FRACTION;
+      int value = c <= '9' ? c - '0' : (c | 0x20) - 'a' + 10; // The Lexer only lets ASCII digits through
+      if (digits == 0 && value == 0) {
+        // A leading zero
+        if (fraction) scale--;
+      } else if (digits < BigDecimal.MAX_DIGITS) {
+        pending[length++] = b;
+        digits++;
+        if (fraction) scale--;
+      } else {
+        if (value != 0) sticky = true;
+        if (!fraction) scale++;
+      }
+    } else if (nextPart == Lexer.PART_EXPONENT) {
+      if (c == '-') {
+        exponentNegative = true;
+      } else if (c >= '0' && c <= '9' && exponent < Integer.MAX_VALUE) {
+        exponent = 10 * exponent + (c - '0');
+      }
+    }
+  }
+
+  // Writes the digits, a nonzero digit for the dropped ones and the exponent into pending
+  private void finishCompact() {
+    if (state == Lexer.ERROR) {
+      throw new IllegalArgumentException("Malformed number of " + consumed + " bytes");
+    }
+    if (!Lexer.isAccepting(state)) {
+      throw new IllegalArgumentException("Unexpected end of the number of " + consumed + " bytes");
+    }
+    if (keyword != 0) {
+      String name = keyword == 'N' ? "NaN" : "Infinity";
+      for (int i = 0; i < name.length(); i++) pending[length++] = (byte) name.charAt(i);
+      return;
+    }
+    if (digits == 0) {
+      pending[length++] = '0';
+    } else if (sticky) {
+      pending[length++] = '1';
+      scale--;
+    }
+    long e = (exponentNegative ? -exponent : exponent) + (hex ? 4 * scale : scale);
+    pending[length++] = (byte) (hex ? 'p' : 'e');
+    if (e < 0) {
+      pending[length++] = '-';
+      e = -e;
+    }
+    int from = length;
+    do {
+      pending[length++] = (byte) ('0' + e % 10);
+      e /= 10;
+    } while (e > 0);
+    // The digits were written from the lowest
+    for (int i = from, j = length - 1; i < j; i++, j--) {
+      byte t = pending[i];
+      pending[i] = pending[j];
+      pending[j] = t;
+    }
+  }
+}
@@ -43,6 +43,11 @@ public class BigBinaryTest {
     new BigBinary("0x1p-400000000000");
   }
 
+  @Test
+  public void constructor_LargePWithLongFraction() {
+    assertThat(new BigBinary("0x0." + "0".repeat(30000) + "1p120004").toString()).isEqualTo("1.");
+  }
+
   @Test
   public void isNegative_Negative() {
     assertThat(new BigBinary("-0x0").isNegative()).isTrue();
@@ -115,4 +120,55 @@ public class BigBinaryTest {
   public void isZero() {
     assertThat(new BigBinary("0x0p100").isZero()).isTrue();
   }
-}
\ No newline at end of file
+
+  @Test
+  public void multiplyByTwo_LongFraction() {
+    var b = new BigBinary("0x1.00000000000000000001p-1");
+    b.multiplyByTwo();
+    assertThat(b).isEqualTo(new BigBinary("0x1.00000000000000000001"));
+  }
+
+  @Test
+  public void discardNumberPart_LongFraction() {
+    var b = new BigBinary("0xabcdef0123456789abcdef.0123456789abcdef0123456789");
+    b.discardNumberPart();
+    assertThat(b).isEqualTo(new BigBinary("0x.0123456789abcdef0123456789"));
+  }
+
+  @Test
+  public void toString_Two() {
+    assertThat(new BigBinary(2).toString()).isEqualTo("10.");
+  }
+
+  @Test
+  public void toString_OneAndQuarter() {
+    assertThat(new BigBinary("0x1.4").toString()).isEqualTo("1.01");
+  }
+
+  @Test
+  public void scaleByPowerOfTwo() {
+    var b = new BigBinary("0x1.8");
+    b.scaleByPowerOfTwo(-100);
+    assertThat(b).isEqualTo(new BigBinary("0x3p-101"));
+  }
+
+  @Test
+  public void binaryExponentEstimate() {
+    assertThat(new BigBinary("0x.1f").binaryExponentEstimate()).isEqualTo(-4);
+  }
+
+  @Test
+  public void fractionBits_RoundAndSticky() {
+    assertThat(new BigBinary("0xf.9").fractionBits(1)).isEqualTo(0b1_0_1);
+  }
+
+  @Test
+  public void fractionBits_Halfway() {
+    assertThat(new BigBinary("0x.5").fractionBits(3)).isEqualTo(0b010_1_0);
+  }
+
+  @Test
+  public void fractionBits_BeyondLastBit() {
+    assertThat(new BigBinary("0x.8").fractionBits(4)).isEqualTo(0b1000_0_0);
+  }
+}
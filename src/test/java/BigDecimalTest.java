@@ -61,6 +61,11 @@ public class BigDecimalTest {
     new BigDecimal("1e-400000000000");
   }
 
+  @Test
+  public void constructor_LargeEWithLongFraction() {
+    assertThat(new BigDecimal("0." + "0".repeat(200000) + "1e200001").toString()).isEqualTo("1.");
+  }
+
   @Test
   public void isNegative_Positive() {
     assertThat(new BigDecimal(1).isNegative()).isFalse();
@@ -173,4 +178,86 @@ public class BigDecimalTest {
     var decimal = new BigDecimal("1.5");
     assertThat(decimal.toString()).isEqualTo("1.5");
   }
+
+  @Test
+  public void multiplyByTwo_CarryAcrossLimbs() {
+    var decimal = new BigDecimal("999999999999999999.5");
+    decimal.multiplyByTwo();
+    assertThat(decimal).isEqualTo(new BigDecimal("1999999999999999999"));
+  }
+
+  @Test
+  public void divideByTwo_ExtendsFraction() {
+    var decimal = new BigDecimal("1000000000.000000001");
+    decimal.divideByTwo();
+    assertThat(decimal).isEqualTo(new BigDecimal("500000000.0000000005"));
+  }
+
+  @Test
+  public void discardNumberPart_LongFraction() {
+    var decimal = new BigDecimal("123456789012.345678901234");
+    decimal.discardNumberPart();
+    assertThat(decimal).isEqualTo(new BigDecimal("0.345678901234"));
+  }
+
+  @Test
+  public void toString_LongNumber() {
+    var decimal = new BigDecimal("1234567890123.0000000001");
+    assertThat(decimal.toString()).isEqualTo("1234567890123.0000000001");
+  }
+
+  @Test
+  public void scaleByPowerOfTwo_Positive() {
+    var decimal = new BigDecimal("1.5");
+    decimal.scaleByPowerOfTwo(100);
+    assertThat(decimal).isEqualTo(new BigDecimal("1901475900342344102245054808064"));
+  }
+
+  @Test
+  public void scaleByPowerOfTwo_Negative() {
+    var decimal = new BigDecimal(3);
+    decimal.scaleByPowerOfTwo(-40);
+    assertThat(decimal).isEqualTo(new BigDecimal("0.000000000002728484105318784713745117187500"));
+  }
+
+  @Test
+  public void binaryExponentEstimate_Large() {
+    assertThat(new BigDecimal("1e300").binaryExponentEstimate()).isBetween(995, 997);
+  }
+
+  @Test
+  public void binaryExponentEstimate_Small() {
+    assertThat(new BigDecimal("0.000000000001").binaryExponentEstimate()).isBetween(-41, -39);
+  }
+
+  @Test
+  public void fractionBits_RoundAndSticky() {
+    // 1.1001b
+    assertThat(new BigDecimal("1.5625").fractionBits(1)).isEqualTo(0b1_0_1);
+  }
+
+  @Test
+  public void fractionBits_Halfway() {
+    // 0.0101b
+    assertThat(new BigDecimal("0.3125").fractionBits(3)).isEqualTo(0b010_1_0);
+  }
+
+  @Test
+  public void fractionBits_Double() {
+    var decimal = new BigDecimal("0.1");
+    assertThat(decimal.fractionBits(52) >>> 2).isEqualTo(0x1999999999999L);
+    assertThat(decimal).isEqualTo(new BigDecimal("0.1"));
+  }
+
+  @Test
+  public void constructor_TooManyDigits_DropsZeros() {
+    var digits = "1" + "0".repeat(1000);
+    assertThat(new BigDecimal(digits + "." + "0".repeat(1000))).isEqualTo(new BigDecimal("1e1000"));
+  }
+
+  @Test
+  public void constructor_TooManyDigits_KeepsNonzeroTail() {
+    var digits = "0.000" + "1".repeat(800);
+    assertThat(new BigDecimal(digits + "0000002")).isEqualTo(new BigDecimal(digits + "1"));
+  }
 }
@@ -0,0 +1,52 @@
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BigIntTest {
+  private static BigInt of(long v) {
+    BigInt n = new BigInt();
+    n.set(v);
+    return n;
+  }
+
+  @Test
+  public void multiplyAdd() {
+    BigInt n = of(0xFFFFFFFFFFFFFFFL);
+    n.multiplyAdd(1_000_000_000_000_000_000L, 123);
+    assertThat(n.toString()).isEqualTo("0xde0b6b3a763ffff21f494c589c007b");
+  }
+
+  @Test
+  public void multiplyAdd_Zero() {
+    BigInt n = of(0);
+    n.multiplyAdd(10, 7);
+    assertThat(n.compareTo(of(7))).isEqualTo(0);
+  }
+
+  @Test
+  public void multiplyByPowerOfFive() {
+    BigInt n = of(3);
+    n.multiplyByPowerOfFive(100);
+    assertThat(n.toString()).isEqualTo("0x" + java.math.BigInteger.valueOf(5).pow(100).multiply(java.math.BigInteger.valueOf(3)).toString(16));
+  }
+
+  @Test
+  public void shiftLeft() {
+    BigInt n = of(0x123456789L);
+    n.shiftLeft(100);
+    assertThat(n.toString()).isEqualTo("0x" + java.math.BigInteger.valueOf(0x123456789L).shiftLeft(100).toString(16));
+    n.shiftLeft(28);
+    assertThat(n.toString()).isEqualTo("0x" + java.math.BigInteger.valueOf(0x123456789L).shiftLeft(128).toString(16));
+  }
+
+  @Test
+  public void compareTo() {
+    BigInt a = of(1);
+    a.shiftLeft(64);
+    BigInt b = of(-1L);
+    assertThat(a.compareTo(b)).isPositive();
+    assertThat(b.compareTo(a)).isNegative();
+    b.multiplyAdd(1, 1);
+    assertThat(a.compareTo(b)).isZero();
+  }
+}
@@ -0,0 +1,66 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class BoundaryScannerTest {
+  private static String describe(BoundaryScanner scanner, String s, boolean last) {
+    byte[] bytes = s.getBytes(StandardCharsets.ISO_8859_1);
+    BoundaryScanner.Boundaries numbers = new BoundaryScanner.Boundaries();
+    int rest = scanner.scan(bytes, 0, bytes.length, last, numbers);
+    StringBuilder sb = new StringBuilder();
+    for (int k = 0; k < numbers.count(); k++) {
+      sb.append(numbers.start(k)).append('-').append(numbers.end(k))
+          .append(" p").append(numbers.point(k))
+          .append(" e").append(numbers.marker(k))
+          .append(numbers.isPlain(k) ? " plain" : "").append(", ");
+    }
+    return sb.append("rest ").append(rest).toString();
+  }
+
+  @Test
+  public void scan() {
+    assertThat(describe(new BoundaryScanner(), "1.5,-2e+3\n\n 0x1p3 1e5e", true))
+        .isEqualTo("0-3 p1 e-1 plain, 4-9 p-1 e6 plain, 12-17 p-1 e-1, 18-22 p-1 e21, rest 22");
+  }
+
+  @Test
+  public void scan_MisplacedSign() {
+    assertThat(describe(new BoundaryScanner(), "1-2,1.e-5", true))
+        .isEqualTo("0-3 p-1 e-1, 4-9 p5 e6 plain, rest 9");
+  }
+
+  @Test
+  public void scan_UnfinishedNumber() {
+    String s = "3.14159 " + "2".repeat(100);
+    assertThat(describe(new BoundaryScanner(), s, false)).isEqualTo("0-7 p1 e-1 plain, rest 8");
+    assertThat(describe(new BoundaryScanner(), s, true)).isEqualTo("0-7 p1 e-1 plain, 8-108 p-1 e-1 plain, rest 108");
+  }
+
+  @Test
+  public void create_VectorOnlyForShapesThatTile64Bytes() throws ReflectiveOperationException {
+    assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+    // The Vector API is not on the compile classpath of the tests
+    Object species = Class.forName("jdk.incubator.vector.ByteVector").getField("SPECIES_PREFERRED").get(null);
+    int lanes = (int) Class.forName("jdk.incubator.vector.VectorSpecies").getMethod("length").invoke(species);
+    String expected = 64 % lanes == 0 ? "VectorBoundaryScanner" : "BoundaryScanner";
+    assertThat(BoundaryScanner.create().getClass().getName()).isEqualTo(expected);
+  }
+
+  @Test
+  public void scan_VectorMatchesScalar() {
+    BoundaryScanner vector = BoundaryScanner.create();
+    assumeTrue(vector.getClass() != BoundaryScanner.class);
+    Random random = new Random(1);
+    String alphabet = "0123456789012345678901234567890123456789.eE+-_x, \n";
+    for (int i = 0; i < 1000; i++) {
+      StringBuilder sb = new StringBuilder();
+      int length = random.nextInt(300);
+      for (int k = 0; k < length; k++) sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      String s = sb.toString();
+      assertThat(describe(vector, s, i % 2 == 0)).isEqualTo(describe(new BoundaryScanner(), s, i % 2 == 0));
+    }
+  }
+}
@@ -0,0 +1,75 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BulkParserTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path write(String text) throws IOException {
+    Path path = folder.newFile().toPath();
+    Files.write(path, text.getBytes(StandardCharsets.US_ASCII));
+    return path;
+  }
+
+  @Test
+  public void parseDoubles_NewlinesAndCommas() throws IOException {
+    var path = write("1.5,2.5\n-0x1p1\r\n1e23,,\n");
+    assertThat(BulkParser.parseDoubles(path)).containsExactly(1.5, 2.5, -2, 1e23);
+  }
+
+  @Test
+  public void parseDoubles_Empty() throws IOException {
+    assertThat(BulkParser.parseDoubles(write(""))).isEmpty();
+  }
+
+  @Test
+  public void parseDoubles_KeepsOrder() throws IOException {
+    var sb = new StringBuilder();
+    var expected = new double[100000];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = i / 8.0;
+      sb.append(expected[i]).append(i % 3 == 0 ? "," : "\n");
+    }
+    assertThat(BulkParser.parseDoubles(write(sb.toString()))).containsExactly(expected);
+  }
+
+  @Test
+  public void parseFloats() throws IOException {
+    var path = write("1.000000059604644775390626\n3.4028236e38");
+    assertThat(BulkParser.parseFloats(path)).containsExactly(1.0000001f, Float.POSITIVE_INFINITY);
+  }
+
+  @Test
+  public void parseDoubles_Malformed_ReportsOffset() throws IOException {
+    var path = write("1.5\n2.5\n3.x5\n4.5\n");
+    assertThatThrownBy(() -> BulkParser.parseDoubles(path))
+        .isInstanceOf(BulkParseException.class)
+        .hasMessage("Malformed number at byte offset 8")
+        .satisfies(e -> assertThat(((BulkParseException) e).getOffset()).isEqualTo(8));
+  }
+
+  @Test
+  public void parseDoubles_EntryLongerThanBlock() throws IOException {
+    var path = write("1,0." + "0".repeat(200000) + "1e200001,2");
+    assertThat(BulkParser.parseDoubles(path)).containsExactly(1, 1, 2);
+  }
+
+  @Test
+  public void parseDoubles_MalformedAfterFirstBlock_ReportsOffset() throws IOException {
+    var sb = new StringBuilder();
+    for (int i = 0; i < 20000; i++) sb.append("0.25\n");
+    var path = write(sb + "1.2.3\n");
+    assertThatThrownBy(() -> BulkParser.parseDoubles(path))
+        .isInstanceOf(BulkParseException.class)
+        .satisfies(e -> assertThat(((BulkParseException) e).getOffset()).isEqualTo(100000));
+  }
+}
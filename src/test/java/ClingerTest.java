@@ -0,0 +1,43 @@
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnitParamsRunner.class)
+public class ClingerTest {
+  private final DecimalScanner scanner = new DecimalScanner();
+
+  @Test
+  @Parameters({"3.14159", "19.99", "-273.15", "0.001", "123456789012345", "6.02214076e23", "1e-22"})
+  public void isExactDouble_CommonInputs(String text) {
+    scanner.scan(text, 0, text.length());
+    assertThat(Clinger.isExactDouble(scanner.significand, scanner.exponent)).isTrue();
+    double d = Clinger.toDouble(scanner.significand, scanner.exponent);
+    assertThat(scanner.negative ? -d : d).isEqualTo(Double.parseDouble(text));
+  }
+
+  @Test
+  @Parameters({"3.14159", "19.99", "-273.15", "0.001", "1234567", "1e10", "1e-10"})
+  public void isExactFloat_CommonInputs(String text) {
+    scanner.scan(text, 0, text.length());
+    assertThat(Clinger.isExactFloat(scanner.significand, scanner.exponent)).isTrue();
+    float f = Clinger.toFloat(scanner.significand, scanner.exponent);
+    assertThat(scanner.negative ? -f : f).isEqualTo(Float.parseFloat(text));
+  }
+
+  @Test
+  @Parameters({"1e23", "1e-23", "9007199254740993", "2.2250738585072014e-308"})
+  public void isExactDouble_NotApplicable(String text) {
+    scanner.scan(text, 0, text.length());
+    assertThat(Clinger.isExactDouble(scanner.significand, scanner.exponent)).isFalse();
+  }
+
+  @Test
+  @Parameters({"1e11", "1e-11", "16777217", "3.4028235e38"})
+  public void isExactFloat_NotApplicable(String text) {
+    scanner.scan(text, 0, text.length());
+    assertThat(Clinger.isExactFloat(scanner.significand, scanner.exponent)).isFalse();
+  }
+}
@@ -0,0 +1,109 @@
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DecimalScannerTest {
+  private final DecimalScanner scanner = new DecimalScanner();
+
+  private boolean scan(String s) {
+    return scanner.scan(s, 0, s.length());
+  }
+
+  private boolean scanAscii(String s) {
+    AsciiSequence ascii = new AsciiSequence();
+    ascii.reset(s.getBytes(java.nio.charset.StandardCharsets.ISO_8859_1));
+    return scanner.scan(ascii, 0, s.length());
+  }
+
+  @Test
+  public void scan_Integer() {
+    assertThat(scan("-42")).isTrue();
+    assertThat(scanner.negative).isTrue();
+    assertThat(scanner.significand).isEqualTo(42);
+    assertThat(scanner.exponent).isEqualTo(0);
+    assertThat(scanner.truncated).isFalse();
+  }
+
+  @Test
+  public void scan_Fraction() {
+    assertThat(scan("0.0042e+4")).isTrue();
+    assertThat(scanner.significand).isEqualTo(42);
+    assertThat(scanner.exponent).isEqualTo(0);
+  }
+
+  @Test
+  public void scan_Underscores() {
+    assertThat(scan("1_23.50_0_0e+1_2")).isTrue();
+    assertThat(scanner.significand).isEqualTo(1235000);
+    assertThat(scanner.exponent).isEqualTo(8);
+  }
+
+  @Test
+  public void scan_TooManyDigits() {
+    assertThat(scan("1.00000000000000000001")).isTrue();
+    assertThat(scanner.significand).isEqualTo(1000000000000000000L);
+    assertThat(scanner.exponent).isEqualTo(-18);
+    assertThat(scanner.truncated).isTrue();
+  }
+
+  @Test
+  public void scan_TrailingZerosAreNotTruncated() {
+    assertThat(scan("12345678901234567890000")).isTrue();
+    assertThat(scanner.significand).isEqualTo(1234567890123456789L);
+    assertThat(scanner.exponent).isEqualTo(4);
+    assertThat(scanner.truncated).isFalse();
+  }
+
+  @Test
+  public void scan_LargeExponent() {
+    assertThat(scan("1e-18446744073709551616")).isTrue();
+    assertThat(scanner.exponent).isLessThan(-400);
+  }
+
+  @Test
+  public void scan_Hex() {
+    assertThat(scan("0x1p0")).isFalse();
+  }
+
+  @Test
+  public void scan_TwoDecimalPoints() {
+    assertThat(scan("1.5.2")).isFalse();
+  }
+
+  @Test
+  public void scan_NoDigits() {
+    assertThat(scan("-.e1")).isFalse();
+  }
+
+  @Test
+  public void scan_AsciiEightDigitsAtATime() {
+    assertThat(scanAscii("1234567890123456.78901234567")).isTrue();
+    assertThat(scanner.significand).isEqualTo(1234567890123456789L);
+    assertThat(scanner.exponent).isEqualTo(-3);
+    assertThat(scanner.truncated).isTrue();
+  }
+
+  @Test
+  public void scan_AsciiLongFraction() {
+    assertThat(scanAscii("0.12345678901234567")).isTrue();
+    assertThat(scanner.significand).isEqualTo(12345678901234567L);
+    assertThat(scanner.digits).isEqualTo(17);
+    assertThat(scanner.exponent).isEqualTo(-17);
+  }
+
+  @Test
+  public void scan_AsciiLeadingZeros() {
+    assertThat(scanAscii("0.000000000001234567890123e3")).isTrue();
+    assertThat(scanner.significand).isEqualTo(1234567890123L);
+    assertThat(scanner.digits).isEqualTo(13);
+    assertThat(scanner.exponent).isEqualTo(-21);
+  }
+
+  @Test
+  public void scan_AsciiNonDigitInChunk() {
+    assertThat(scanAscii("1234_5678.9012345_6")).isTrue();
+    assertThat(scanner.significand).isEqualTo(1234567890123456L);
+    assertThat(scanner.exponent).isEqualTo(-8);
+    assertThat(scanAscii("12345678/")).isFalse();
+  }
+}
@@ -0,0 +1,61 @@
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DigitComparisonTest {
+  // 1 + 2^-53, halfway between 1 and the next double
+  private static final String HALFWAY = "1.00000000000000011102230246251565404236316680908203125";
+  // 1 + 2^-24, halfway between 1 and the next float
+  private static final String FLOAT_HALFWAY = "1.000000059604644775390625";
+
+  private final DecimalScanner scanner = new DecimalScanner();
+  private final DigitComparison comparison = new DigitComparison();
+
+  private double toDouble(String s) {
+    scanner.scan(s, 0, s.length());
+    long candidate = EiselLemire.toDoubleBits(scanner.significand, scanner.exponent);
+    return Double.longBitsToDouble(comparison.toDoubleBits(s, scanner, candidate));
+  }
+
+  private float toFloat(String s) {
+    scanner.scan(s, 0, s.length());
+    long candidate = EiselLemire.toFloatBits(scanner.significand, scanner.exponent);
+    return Float.intBitsToFloat((int) comparison.toFloatBits(s, scanner, candidate));
+  }
+
+  @Test
+  public void toDoubleBits_Halfway() {
+    assertThat(toDouble(HALFWAY)).isEqualTo(1.0);
+    assertThat(toDouble(HALFWAY + "000000000000000000001")).isEqualTo(Math.nextUp(1.0));
+  }
+
+  @Test
+  public void toDoubleBits_DroppedDigits() {
+    // Only the sticky digit tells that this is above the halfway point
+    assertThat(toDouble(HALFWAY + "0".repeat(1000) + "1")).isEqualTo(Math.nextUp(1.0));
+    assertThat(toDouble(HALFWAY + "0".repeat(1000))).isEqualTo(1.0);
+  }
+
+  @Test
+  public void toDoubleBits_Subnormal() {
+    // 2.5 * 2^-1074 rounds to even
+    String halfway = new java.math.BigDecimal(Double.MIN_VALUE).multiply(new java.math.BigDecimal("2.5")).toPlainString();
+    assertThat(toDouble(halfway)).isEqualTo(2 * Double.MIN_VALUE);
+    assertThat(toDouble(halfway + "1")).isEqualTo(3 * Double.MIN_VALUE);
+  }
+
+  @Test
+  public void toDoubleBits_Overflow() {
+    // Halfway between the largest double and 2^1024
+    String halfway = new java.math.BigDecimal(Double.MAX_VALUE)
+        .add(new java.math.BigDecimal(Math.ulp(Double.MAX_VALUE) / 2)).toPlainString();
+    assertThat(toDouble(halfway)).isEqualTo(Double.POSITIVE_INFINITY);
+    assertThat(toDouble(halfway.substring(0, 30) + "e" + (halfway.length() - 30))).isEqualTo(Double.MAX_VALUE);
+  }
+
+  @Test
+  public void toFloatBits_Halfway() {
+    assertThat(toFloat(FLOAT_HALFWAY + "00000")).isEqualTo(1.0f);
+    assertThat(toFloat(FLOAT_HALFWAY + "00001")).isEqualTo(Math.nextUp(1.0f));
+  }
+}
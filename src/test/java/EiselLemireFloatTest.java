@@ -0,0 +1,49 @@
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EiselLemireFloatTest {
+  @Test
+  public void toFloatBits_Pi() {
+    assertThat(EiselLemireFloat.toFloatBits(314159265, -8)).isEqualTo(Float.floatToIntBits(3.14159265f));
+  }
+
+  @Test
+  public void toFloatBits_LargeSignificand() {
+    // 10^19 - 1 does not fit in a signed long
+    assertThat(EiselLemireFloat.toFloatBits(-8446744073709551617L, 0)).isEqualTo(Float.floatToIntBits(1e19f));
+  }
+
+  @Test
+  public void toFloatBits_Halfway_RoundToEven() {
+    // 2^24 + 1 and 2^24 + 3
+    assertThat(EiselLemireFloat.toFloatBits(16777217, 0)).isEqualTo(Float.floatToIntBits(16777216f));
+    assertThat(EiselLemireFloat.toFloatBits(16777219, 0)).isEqualTo(Float.floatToIntBits(16777220f));
+  }
+
+  @Test
+  public void toFloatBits_HalfwayFraction_RoundToEven() {
+    // 6243426.25 is just at the middle of 6243426 and 6243426.5
+    assertThat(EiselLemireFloat.toFloatBits(624342625, -2)).isEqualTo(Float.floatToIntBits(6243426f));
+    assertThat(EiselLemireFloat.toFloatBits(624342675, -2)).isEqualTo(Float.floatToIntBits(6243427f));
+  }
+
+  @Test
+  public void toFloatBits_LargestFloat() {
+    assertThat(EiselLemireFloat.toFloatBits(34028234663852886L, 22)).isEqualTo(Float.floatToIntBits(Float.MAX_VALUE));
+    assertThat(EiselLemireFloat.toFloatBits(4, 38)).isEqualTo(Float.floatToIntBits(Float.POSITIVE_INFINITY));
+  }
+
+  @Test
+  public void toFloatBits_Subnormal_Fails() {
+    assertThat(EiselLemireFloat.toFloatBits(1, -40)).isEqualTo(EiselLemire.FAILED);
+  }
+
+  @Test
+  public void toFloatBits_JustBelowHalfway_Fails() {
+    // Too close to the halfway point to decide with a 64-bit power of five
+    assertThat(EiselLemireFloat.toFloatBits(3416954219570556006L, -29)).isEqualTo(EiselLemire.FAILED);
+    assertThat(EiselLemire.toFloatBits(3416954219570556006L, -29))
+        .isEqualTo(Float.floatToIntBits(3.416954219570556006e-11f));
+  }
+}
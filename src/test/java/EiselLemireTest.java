@@ -0,0 +1,53 @@
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EiselLemireTest {
+  @Test
+  public void toDoubleBits_Pi() {
+    assertThat(EiselLemire.toDoubleBits(314159, -5)).isEqualTo(Double.doubleToLongBits(3.14159));
+  }
+
+  @Test
+  public void toDoubleBits_LargeSignificand() {
+    // 10^19 - 1 does not fit in a signed long
+    assertThat(EiselLemire.toDoubleBits(-8446744073709551617L, 0)).isEqualTo(Double.doubleToLongBits(1e19));
+  }
+
+  @Test
+  public void toDoubleBits_Halfway_RoundToEven() {
+    // 2^53 + 1
+    assertThat(EiselLemire.toDoubleBits(9007199254740993L, 0)).isEqualTo(Double.doubleToLongBits(9007199254740992d));
+  }
+
+  @Test
+  public void toDoubleBits_Subnormal() {
+    assertThat(EiselLemire.toDoubleBits(5, -324)).isEqualTo(Double.doubleToLongBits(5e-324));
+  }
+
+  @Test
+  public void toDoubleBits_TooSmall() {
+    assertThat(EiselLemire.toDoubleBits(1, -400)).isEqualTo(0);
+  }
+
+  @Test
+  public void toDoubleBits_TooLarge() {
+    assertThat(EiselLemire.toDoubleBits(1, 309)).isEqualTo(Double.doubleToLongBits(Double.POSITIVE_INFINITY));
+  }
+
+  @Test
+  public void toFloatBits_Pi() {
+    assertThat(EiselLemire.toFloatBits(314159, -5)).isEqualTo(Float.floatToIntBits(3.14159f));
+  }
+
+  @Test
+  public void toFloatBits_Halfway_RoundToEven() {
+    // 2^24 + 1
+    assertThat(EiselLemire.toFloatBits(16777217, 0)).isEqualTo(Float.floatToIntBits(16777216f));
+  }
+
+  @Test
+  public void toFloatBits_TooLarge() {
+    assertThat(EiselLemire.toFloatBits(34028236, 31)).isEqualTo(Float.floatToIntBits(Float.POSITIVE_INFINITY));
+  }
+}
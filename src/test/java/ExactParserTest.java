@@ -0,0 +1,52 @@
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExactParserTest {
+  @Test
+  public void parse() {
+    assertThat(ExactParser.parse("-123.456e-7")).isEqualTo(new java.math.BigDecimal("-123.456e-7"));
+    assertThat(ExactParser.parse("1_000.5")).isEqualTo(new java.math.BigDecimal("1000.5"));
+    assertThat(ExactParser.parse("+.5E+3")).isEqualTo(new java.math.BigDecimal("0.5e3"));
+  }
+
+  @Test
+  public void parse_ManyDigits() {
+    Random random = new Random(1);
+    for (int bits : new int[] {1000, 1700, 10000, 123457}) {
+      BigInteger n = new BigInteger(bits, random);
+      String s = n.toString();
+      assertThat(ExactParser.parse(s)).isEqualTo(new java.math.BigDecimal(n));
+      assertThat(ExactParser.parse("0." + s)).isEqualTo(new java.math.BigDecimal(n, s.length()));
+    }
+  }
+
+  @Test
+  public void parse_MillionsOfDigits() {
+    // Large enough to convert the halves in parallel
+    BigInteger n = new BigInteger(8_000_000, new Random(2));
+    assertThat(ExactParser.parse(n.toString()).toBigIntegerExact()).isEqualTo(n);
+  }
+
+  @Test
+  public void parse_LargeExponent() {
+    assertThat(ExactParser.parse("1e" + "0".repeat(30) + "5")).isEqualTo(new java.math.BigDecimal("1e5"));
+    assertThat(ExactParser.parse("1.5e2147483648").scale()).isEqualTo(-2147483647);
+    assertThat(ExactParser.parse("1e-2147483647").scale()).isEqualTo(2147483647);
+    assertThatThrownBy(() -> ExactParser.parse("1.0e-2147483647")).isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("out of range");
+    assertThatThrownBy(() -> ExactParser.parse("1e99999999999999999999")).isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("out of range");
+  }
+
+  @Test
+  public void parse_Malformed() {
+    assertThatThrownBy(() -> ExactParser.parse("1.2.3")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ExactParser.parse("-.e1")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ExactParser.parse("1e")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ExactParser.parse("0x1p3")).isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,111 @@
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(JUnitParamsRunner.class)
+public class FixedFormatterTest {
+  private final FixedFormatter formatter = new FixedFormatter();
+
+  @Test
+  @Parameters({
+      "3.14159, 2, 3.14",
+      "0.125, 2, 0.12",
+      "0.375, 2, 0.38",
+      "2.5, 0, 2",
+      "3.5, 0, 4",
+      "0.5, 0, 0",
+      "-0.001, 2, -0.00",
+      "-0, 1, -0.0",
+      "9.995, 2, 9.99", // 9.99499999999999921840299066388979554176330566406250
+      "9.9951, 2, 10.00",
+      "1e22, 0, 10000000000000000000000",
+      "1e23, 0, 99999999999999991611392",
+      "0.1, 20, 0.10000000000000000555",
+      "123, 3, 123.000",
+  })
+  public void formatFixed(String input, int precision, String expected) {
+    assertThat(formatter.formatFixed(Double.parseDouble(input), precision)).isEqualTo(expected);
+  }
+
+  @Test
+  @Parameters({
+      "1500, 2, 1.50e+03",
+      "0, 2, 0.00e+00",
+      "-0.000123456, 3, -1.235e-04",
+      "9.9999, 2, 1.00e+01",
+      "1e-300, 0, 1e-300",
+      "4.9e-324, 5, 4.94066e-324",
+      "1.7976931348623157E308, 16, 1.7976931348623157e+308",
+      "125, 1, 1.2e+02",
+  })
+  public void formatScientific(String input, int precision, String expected) {
+    assertThat(formatter.formatScientific(Double.parseDouble(input), precision)).isEqualTo(expected);
+  }
+
+  @Test
+  public void format_Special() {
+    assertThat(formatter.formatFixed(Double.NaN, 2)).isEqualTo("NaN");
+    assertThat(formatter.formatScientific(Double.NEGATIVE_INFINITY, 2)).isEqualTo("-Infinity");
+  }
+
+  @Test
+  public void format_Float() {
+    char[] chars = new char[20];
+    int length = formatter.formatFixed(0.1f, 10, chars, 2);
+    assertThat(new String(chars, 2, length)).isEqualTo("0.1000000015");
+    byte[] bytes = new byte[20];
+    length = formatter.formatScientific(3.4028235e38f, 3, bytes, 0);
+    assertThat(new String(bytes, 0, length, StandardCharsets.US_ASCII)).isEqualTo("3.403e+38");
+  }
+
+  @Test
+  public void format_InvalidPrecision() {
+    assertThatThrownBy(() -> formatter.formatFixed(1.0, -1)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> formatter.formatScientific(1.0, FixedFormatter.MAX_PRECISION + 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void format_MaxLength() {
+    byte[] bytes = new byte[FixedFormatter.MAX_LENGTH];
+    int length = formatter.formatFixed(-Double.MAX_VALUE, FixedFormatter.MAX_PRECISION, bytes, 0);
+    assertThat(length).isEqualTo(FixedFormatter.MAX_LENGTH);
+    length = formatter.formatFixed(Double.MIN_VALUE, FixedFormatter.MAX_PRECISION, bytes, 0);
+    assertThat(bytes[length - 1]).isEqualTo((byte) '5');
+  }
+
+  @Test
+  public void format_MatchesBigDecimal() {
+    SplittableRandom random = new SplittableRandom(22);
+    for (int i = 0; i < 20_000; i++) {
+      double d = Double.longBitsToDouble(random.nextLong());
+      if (!Double.isFinite(d)) continue;
+      if (i % 2 == 0) d = Math.scalb(d, -Math.getExponent(d) + random.nextInt(-70, 70));
+      int precision = random.nextInt(25);
+      assertThat(formatter.formatFixed(d, precision)).as("%s %d", d, precision).isEqualTo(fixed(d, precision));
+      assertThat(formatter.formatScientific(d, precision)).as("%s %d", d, precision).isEqualTo(scientific(d, precision));
+    }
+  }
+
+  private static String fixed(double d, int precision) {
+    String s = new java.math.BigDecimal(Math.abs(d)).setScale(precision, RoundingMode.HALF_EVEN).toPlainString();
+    return (Math.copySign(1, d) < 0 ? "-" : "") + s;
+  }
+
+  private static String scientific(double d, int precision) {
+    java.math.BigDecimal b = new java.math.BigDecimal(Math.abs(d)).round(new MathContext(precision + 1, RoundingMode.HALF_EVEN));
+    StringBuilder digits = new StringBuilder(b.unscaledValue().toString());
+    int exp = b.signum() == 0 ? 0 : digits.length() - 1 - b.scale();
+    while (digits.length() < precision + 1) digits.append('0');
+    if (precision > 0) digits.insert(1, '.');
+    return (Math.copySign(1, d) < 0 ? "-" : "") + digits + String.format("e%s%02d", exp < 0 ? "-" : "+", Math.abs(exp));
+  }
+}
@@ -0,0 +1,203 @@
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Formats floats and doubles, parses them back with {@link Parser} and checks that the bits match.
+ *
+ * <pre>
+ *   FloatVerifier float [fromBits toBits]   Every float with bits in [fromBits, toBits), all 2^32 by default
+ *   FloatVerifier double [samples [seed]]   Random doubles, 10^8 by default
+ * </pre>
+ *
+ * Each value is formatted with toString (the shortest digits since JDK 19), with 9 or 17 significant
+ * digits, which always round-trip, and with toHexString.  NaNs and infinities are skipped.  The work
+ * is split over the common fork-join pool.  Prints the first mismatch, if any, and the throughput.
+ */
+public final class FloatVerifier {
+  // Patterns or samples per task
+  private static final long LEAF_SIZE = 1 << 16;
+  // 10^(i - 40)
+  private static final double[] POWERS_OF_TEN = new double[100];
+  private static final MathContext DOUBLE_DIGITS = new MathContext(17, RoundingMode.HALF_EVEN);
+
+  static {
+    for (int i = 0; i < POWERS_OF_TEN.length; i++) POWERS_OF_TEN[i] = Double.parseDouble("1e" + (i - 40));
+  }
+
+  // The lowest mismatching bits (sample index for doubles), or Long.MAX_VALUE
+  private final LongAccumulator firstMismatch = new LongAccumulator(Math::min, Long.MAX_VALUE);
+  private volatile String firstMessage;
+
+  public static void main(String[] args) {
+    String mode = args.length > 0 ? args[0] : "float";
+    FloatVerifier verifier = new FloatVerifier();
+    long start = System.nanoTime();
+    long count;
+    if (mode.equals("float")) {
+      long from = args.length > 1 ? Long.decode(args[1]) : 0;
+      long to = args.length > 2 ? Long.decode(args[2]) : 1L << 32;
+      count = ForkJoinPool.commonPool().invoke(verifier.new FloatTask(from, to));
+    } else if (mode.equals("double")) {
+      long samples = args.length > 1 ? Long.parseLong(args[1]) : 100_000_000;
+      long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+      System.out.println("seed " + seed);
+      count = ForkJoinPool.commonPool().invoke(verifier.new DoubleTask(new SplittableRandom(seed), 0, samples));
+    } else {
+      throw new IllegalArgumentException("Unknown mode: " + mode);
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("%d values in %.1f s (%.0f values/s)%n", count, seconds, count / seconds);
+    if (verifier.firstMessage != null) {
+      System.out.println("FAILED: " + verifier.firstMessage);
+      System.exit(1);
+    }
+    System.out.println("OK");
+  }
+
+  private void mismatch(long key, String s, String expected, String actual) {
+    firstMismatch.accumulate(key);
+    synchronized (this) {
+      if (firstMismatch.get() == key) {
+        firstMessage = "\"" + s + "\" was parsed as " + actual + " instead of " + expected;
+      }
+    }
+  }
+
+  /**
+   * Writes f, which must be positive and finite, with 9 significant digits into buf and returns the
+   * length.  The digits are scaled in double, so the last one may be off by one near a tie, which is
+   * still well within half an ulp of f.
+   */
+  static int formatNineDigits(float f, char[] buf) {
+    int e10 = (int) Math.floor(Math.log10(f));
+    double scaled = f * POWERS_OF_TEN[40 + 8 - e10];
+    long m = Math.round(scaled);
+    if (m >= 1_000_000_000) {
+      m = Math.round(scaled / 10);
+      e10++;
+    } else if (m < 100_000_000) {
+      m = Math.round(scaled * 10);
+      e10--;
+    }
+    for (int i = 9; i > 1; i--) {
+      buf[i] = (char) ('0' + m % 10);
+      m /= 10;
+    }
+    buf[0] = (char) ('0' + m);
+    buf[1] = '.';
+    int length = 10;
+    buf[length++] = 'e';
+    String exp = Integer.toString(e10);
+    exp.getChars(0, exp.length(), buf, length);
+    return length + exp.length();
+  }
+
+  private final class FloatTask extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+    private final long from;
+    private final long to;
+
+    FloatTask(long from, long to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override protected Long compute() {
+      if (to - from > LEAF_SIZE) {
+        long mid = from + (to - from) / 2;
+        FloatTask left = new FloatTask(from, mid);
+        left.fork();
+        long right = new FloatTask(mid, to).compute();
+        return left.join() + right;
+      }
+      Parser parser = new Parser();
+      char[] buf = new char[32];
+      long count = 0;
+      for (long bits = from; bits < to; bits++) {
+        float f = Float.intBitsToFloat((int) bits);
+        if (!Float.isFinite(f)) continue;
+        count++;
+        check(parser, bits, f, Float.toString(f));
+        check(parser, bits, f, Float.toHexString(f));
+        if (f != 0) {
+          int length = formatNineDigits(Math.abs(f), buf);
+          if (f < 0) {
+            System.arraycopy(buf, 0, buf, 1, length++);
+            buf[0] = '-';
+          }
+          float actual = parser.parseFloat(buf, 0, length);
+          if (Float.floatToRawIntBits(actual) != (int) bits) {
+            mismatch(bits, new String(buf, 0, length), Float.toString(f), Float.toString(actual));
+          }
+        }
+      }
+      return count;
+    }
+
+    private void check(Parser parser, long bits, float f, String s) {
+      float actual;
+      try {
+        actual = parser.parseFloat(s);
+      } catch (RuntimeException e) {
+        mismatch(bits, s, Float.toString(f), e.toString());
+        return;
+      }
+      if (Float.floatToRawIntBits(actual) != (int) bits) {
+        mismatch(bits, s, Float.toString(f), Float.toString(actual));
+      }
+    }
+  }
+
+  private final class DoubleTask extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+    private final SplittableRandom random;
+    private final long from;
+    private final long to;
+
+    DoubleTask(SplittableRandom random, long from, long to) {
+      this.random = random;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override protected Long compute() {
+      if (to - from > LEAF_SIZE) {
+        long mid = from + (to - from) / 2;
+        DoubleTask left = new DoubleTask(random.split(), from, mid);
+        left.fork();
+        long right = new DoubleTask(random, mid, to).compute();
+        return left.join() + right;
+      }
+      Parser parser = new Parser();
+      long count = 0;
+      for (long i = from; i < to; i++) {
+        long bits = random.nextLong();
+        double d = Double.longBitsToDouble(bits);
+        if (!Double.isFinite(d)) continue;
+        count++;
+        check(parser, i, bits, Double.toString(d));
+        check(parser, i, bits, Double.toHexString(d));
+        // Exact 17 digits are too slow to compute in double, but only a sample is checked
+        if (d != 0) check(parser, i, bits, new java.math.BigDecimal(d).round(DOUBLE_DIGITS).toString());
+      }
+      return count;
+    }
+
+    private void check(Parser parser, long i, long bits, String s) {
+      double actual;
+      try {
+        actual = parser.parseDouble(s);
+      } catch (RuntimeException e) {
+        mismatch(i, s, Double.toString(Double.longBitsToDouble(bits)), e.toString());
+        return;
+      }
+      if (Double.doubleToRawLongBits(actual) != bits) {
+        mismatch(i, s, Double.toString(Double.longBitsToDouble(bits)), Double.toString(actual));
+      }
+    }
+  }
+}
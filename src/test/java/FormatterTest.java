@@ -0,0 +1,115 @@
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(JUnitParamsRunner.class)
+public class FormatterTest {
+  private final Formatter formatter = new Formatter();
+  private final Parser parser = new Parser();
+
+  @Test
+  @Parameters({
+      "0.1, 0.1",
+      "100, 100.0",
+      "-1.5, -1.5",
+      "0, 0.0",
+      "-0, -0.0",
+      "0.001, 0.001",
+      "0.000999, 9.99E-4",
+      "9999999, 9999999.0",
+      "10000000, 1.0E7",
+      "1e23, 1.0E23",
+      "123456.789, 123456.789",
+      "4.9e-324, 4.9E-324",
+      "1e-323, 9.9E-324",
+      "2.2250738585072014E-308, 2.2250738585072014E-308",
+      "1.7976931348623157E308, 1.7976931348623157E308",
+      "9007199254740991, 9.007199254740991E15",
+      "0.3333333333333333, 0.3333333333333333",
+  })
+  public void formatDouble(String input, String expected) {
+    assertThat(formatter.format(Double.parseDouble(input))).isEqualTo(expected);
+  }
+
+  @Test
+  @Parameters({
+      "0.1, 0.1",
+      "16777216, 1.6777216E7",
+      "1.4e-45, 1.4E-45",
+      "1.17549435E-38, 1.1754944E-38",
+      "3.4028235e38, 3.4028235E38",
+      "0.33333334, 0.33333334",
+      // Float.toString gives 8.1109158E8 before JDK 19
+      "8.1109158E8, 8.110916E8",
+  })
+  public void formatFloat(String input, String expected) {
+    assertThat(formatter.format(Float.parseFloat(input))).isEqualTo(expected);
+  }
+
+  @Test
+  public void format_Special() {
+    assertThat(formatter.format(Double.NaN)).isEqualTo("NaN");
+    assertThat(formatter.format(Double.NEGATIVE_INFINITY)).isEqualTo("-Infinity");
+    assertThat(formatter.format(Float.POSITIVE_INFINITY)).isEqualTo("Infinity");
+  }
+
+  @Test
+  public void format_IntoArrays() {
+    byte[] bytes = new byte[40];
+    int length = formatter.format(-2.2250738585072014E-308, bytes, 3);
+    assertThat(length).isEqualTo(Formatter.MAX_LENGTH);
+    assertThat(new String(bytes, 3, length, StandardCharsets.US_ASCII)).isEqualTo("-2.2250738585072014E-308");
+    char[] chars = new char[10];
+    length = formatter.format(0.25f, chars, 1);
+    assertThat(new String(chars, 1, length)).isEqualTo("0.25");
+  }
+
+  @Test
+  public void formatDouble_RoundTrip() {
+    SplittableRandom random = new SplittableRandom(17);
+    char[] chars = new char[Formatter.MAX_LENGTH];
+    for (int i = 0; i < 200_000; i++) {
+      double d = Double.longBitsToDouble(random.nextLong());
+      if (!Double.isFinite(d)) continue;
+      int length = formatter.format(d, chars, 0);
+      assertThat(parser.parseDouble(chars, 0, length)).isEqualTo(d);
+    }
+  }
+
+  @Test
+  public void formatFloat_RoundTrip() {
+    SplittableRandom random = new SplittableRandom(17);
+    char[] chars = new char[Formatter.MAX_LENGTH];
+    for (int i = 0; i < 200_000; i++) {
+      float f = Float.intBitsToFloat(random.nextInt());
+      if (!Float.isFinite(f)) continue;
+      int length = formatter.format(f, chars, 0);
+      assertThat(parser.parseFloat(chars, 0, length)).isEqualTo(f);
+    }
+  }
+
+  @Test
+  public void formatDouble_Shortest() {
+    SplittableRandom random = new SplittableRandom(17);
+    for (int i = 0; i < 2_000; i++) {
+      double d = Math.abs(Double.longBitsToDouble(random.nextLong()));
+      if (!Double.isFinite(d) || d == 0) continue;
+      // The fewest digits that round-trip, with at least two as in the formatter
+      java.math.BigDecimal exact = new java.math.BigDecimal(d);
+      int shortest = 2;
+      while (Double.parseDouble(exact.round(new MathContext(shortest, RoundingMode.HALF_EVEN)).toString()) != d) {
+        shortest++;
+      }
+      String s = formatter.format(d);
+      int digits = new java.math.BigDecimal(s).stripTrailingZeros().precision();
+      assertThat(digits).as(s).isLessThanOrEqualTo(shortest);
+    }
+  }
+}
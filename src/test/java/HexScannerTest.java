@@ -0,0 +1,58 @@
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HexScannerTest {
+  private final HexScanner scanner = new HexScanner();
+
+  private boolean scan(String s) {
+    return scanner.scan(s, 0, s.length());
+  }
+
+  @Test
+  public void scan_Integer() {
+    assertThat(scan("-0x1_0")).isTrue();
+    assertThat(scanner.negative).isTrue();
+    assertThat(scanner.zero).isFalse();
+    assertThat(scanner.exponent).isEqualTo(4);
+    assertThat(scanner.powerOfTwo).isTrue();
+  }
+
+  @Test
+  public void scan_Fraction() {
+    assertThat(scan("0x0.0_3p+1")).isTrue();
+    assertThat(scanner.exponent).isEqualTo(-6);
+    assertThat(scanner.powerOfTwo).isFalse();
+  }
+
+  @Test
+  public void scan_Zero() {
+    assertThat(scan("0x0.000p99")).isTrue();
+    assertThat(scanner.zero).isTrue();
+  }
+
+  @Test
+  public void scan_LargeExponent() {
+    assertThat(scan("0x1p-18446744073709551616")).isTrue();
+    assertThat(scanner.exponent).isLessThan(-2000);
+  }
+
+  @Test
+  public void scan_Decimal() {
+    assertThat(scan("1e0")).isFalse();
+  }
+
+  @Test
+  public void scan_Malformed() {
+    assertThat(scan("0x1.2.3")).isFalse();
+    assertThat(scan("0x")).isFalse();
+    assertThat(scan("0x1p")).isFalse();
+  }
+
+  @Test
+  public void scan_NonAsciiDigit() {
+    assertThat(scan("0x\uFF11p0")).isFalse(); // Fullwidth 1
+    assertThat(scan("0x1\u0663")).isFalse(); // Arabic-Indic 3
+    assertThat(scan("0x1Fp0")).isTrue();
+  }
+}
@@ -0,0 +1,120 @@
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LexerTest {
+  private final Lexer lexer = new Lexer();
+
+  private boolean lex(String s) {
+    return lexer.lex(s, 0, s.length());
+  }
+
+  @Test
+  public void lex_Decimal() {
+    assertThat(lex("-12.5e+3")).isTrue();
+    assertThat(lexer.kind).isEqualTo(Lexer.DECIMAL);
+    assertThat(lexer.negative).isTrue();
+    assertThat(lexer.start).isEqualTo(0);
+    assertThat(lexer.end).isEqualTo(8);
+    assertThat(lexer.integerFrom).isEqualTo(1);
+    assertThat(lexer.integerTo).isEqualTo(3);
+    assertThat(lexer.point).isEqualTo(3);
+    assertThat(lexer.fractionFrom).isEqualTo(4);
+    assertThat(lexer.fractionTo).isEqualTo(5);
+    assertThat(lexer.marker).isEqualTo(5);
+    assertThat(lexer.exponentFrom).isEqualTo(6);
+    assertThat(lexer.exponentTo).isEqualTo(8);
+  }
+
+  @Test
+  public void lex_AbsentParts() {
+    assertThat(lex(".5")).isTrue();
+    assertThat(lexer.integerFrom).isEqualTo(lexer.integerTo);
+    assertThat(lexer.fractionFrom).isEqualTo(1);
+    assertThat(lexer.marker).isEqualTo(-1);
+    assertThat(lexer.exponentFrom).isEqualTo(lexer.exponentTo);
+
+    assertThat(lex("7.")).isTrue();
+    assertThat(lexer.point).isEqualTo(1);
+    assertThat(lexer.fractionFrom).isEqualTo(2);
+    assertThat(lexer.fractionTo).isEqualTo(2);
+
+    assertThat(lex("42")).isTrue();
+    assertThat(lexer.point).isEqualTo(-1);
+    assertThat(lexer.fractionFrom).isEqualTo(2);
+  }
+
+  @Test
+  public void lex_WhitespaceAndSuffix() {
+    assertThat(lex(" \t+1.5f\n")).isTrue();
+    assertThat(lexer.kind).isEqualTo(Lexer.DECIMAL);
+    assertThat(lexer.negative).isFalse();
+    assertThat(lexer.start).isEqualTo(2);
+    assertThat(lexer.end).isEqualTo(6);
+    assertThat(lex("2D")).isTrue();
+    assertThat(lexer.end).isEqualTo(1);
+    assertThat(lex("1e5F")).isTrue();
+    assertThat(lexer.exponentTo).isEqualTo(3);
+  }
+
+  @Test
+  public void lex_Hex() {
+    assertThat(lex("-0X1.8p-3d")).isTrue();
+    assertThat(lexer.kind).isEqualTo(Lexer.HEX);
+    assertThat(lexer.negative).isTrue();
+    assertThat(lexer.integerFrom).isEqualTo(3);
+    assertThat(lexer.integerTo).isEqualTo(4);
+    assertThat(lexer.point).isEqualTo(4);
+    assertThat(lexer.fractionTo).isEqualTo(6);
+    assertThat(lexer.exponentFrom).isEqualTo(7);
+    assertThat(lexer.exponentTo).isEqualTo(9);
+    assertThat(lexer.end).isEqualTo(9);
+
+    assertThat(lex("0x1_f")).isTrue();
+    assertThat(lexer.marker).isEqualTo(-1);
+  }
+
+  @Test
+  public void lex_Keywords() {
+    assertThat(lex("NaN")).isTrue();
+    assertThat(lexer.kind).isEqualTo(Lexer.NAN);
+    assertThat(lex(" -Infinity ")).isTrue();
+    assertThat(lexer.kind).isEqualTo(Lexer.INFINITY);
+    assertThat(lexer.negative).isTrue();
+    assertThat(lexer.start).isEqualTo(1);
+    assertThat(lexer.end).isEqualTo(10);
+  }
+
+  @Test
+  public void lex_Malformed() {
+    assertThat(lex("")).isFalse();
+    assertThat(lexer.errorOffset).isEqualTo(0);
+    assertThat(lex("1.2.3")).isFalse();
+    assertThat(lexer.errorOffset).isEqualTo(3);
+    assertThat(lex("1e")).isFalse();
+    assertThat(lexer.errorOffset).isEqualTo(2);
+    assertThat(lex("Infinit")).isFalse();
+    assertThat(lexer.errorOffset).isEqualTo(7);
+    assertThat(lex("NaNf")).isFalse();
+    assertThat(lexer.errorOffset).isEqualTo(3);
+    assertThat(lex("1.5f 2")).isFalse();
+    assertThat(lexer.errorOffset).isEqualTo(5);
+    assertThat(lex("0x")).isFalse();
+    assertThat(lex("0x1f")).isTrue(); // A hex digit, not a suffix
+    assertThat(lex("0x1pf")).isFalse();
+    assertThat(lex(".")).isFalse();
+    assertThat(lex("1\u00e9")).isFalse();
+    assertThat(lexer.errorOffset).isEqualTo(1);
+  }
+
+  @Test
+  public void lexOrThrow() {
+    assertThatThrownBy(() -> lexer.lexOrThrow("x1.2.3", 1, 6)).isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Unexpected decimal point at 3. There are more than one decimal points: 1.2.3");
+    assertThatThrownBy(() -> lexer.lexOrThrow("1e+", 0, 3)).isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Unexpected end of the number: 1e+");
+    assertThatThrownBy(() -> lexer.lexOrThrow("12a", 0, 3)).isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Unexpected char [a] at index 2: 12a");
+  }
+}
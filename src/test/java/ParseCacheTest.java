@@ -0,0 +1,84 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ParseCacheTest {
+  private final ParseCache cache = new ParseCache(1024);
+
+  @Test
+  public void parseDouble_CountsHitsAndMisses() {
+    assertThat(cache.parseDouble("1.5")).isEqualTo(1.5);
+    assertThat(cache.parseDouble("1.5")).isEqualTo(1.5);
+    assertThat(cache.parseDouble("x1.5x", 1, 4)).isEqualTo(1.5);
+    assertThat(cache.hitCount()).isEqualTo(2);
+    assertThat(cache.missCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void parseDouble_BytesAndCharsShareEntries() {
+    cache.parseDouble("0.1");
+    byte[] ascii = "0.1,".getBytes(StandardCharsets.US_ASCII);
+    assertThat(cache.parseDouble(ascii, 0, 3)).isEqualTo(0.1);
+    assertThat(cache.hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void parseFloat_IsNotRoundedFromDouble() {
+    // Rounding this to a double first and then to a float gives a different float
+    String s = "1.00000005960464477550";
+    assertThat(cache.parseDouble(s)).isEqualTo(1.0000000596046448);
+    assertThat(cache.parseFloat(s)).isEqualTo(1.0000001f);
+    assertThat(cache.parseFloat(s)).isEqualTo(1.0000001f);
+    assertThat(cache.hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void parseDouble_LongLiteralsAreNotCached() {
+    String s = "3.14159265358979323846264338327950288";
+    assertThat(cache.parseDouble(s)).isEqualTo(Math.PI);
+    assertThat(cache.parseDouble(s)).isEqualTo(Math.PI);
+    assertThat(cache.hitCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void parseDouble_EvictsWhenFull() {
+    ParseCache small = new ParseCache(16);
+    for (int i = 0; i < 1000; i++) assertThat(small.parseDouble(Integer.toString(i))).isEqualTo(i);
+    for (int i = 0; i < 1000; i++) assertThat(small.parseDouble(Integer.toString(i))).isEqualTo(i);
+    assertThat(small.hitCount()).isLessThan(100);
+  }
+
+  @Test
+  public void parseDouble_Malformed() {
+    assertThatThrownBy(() -> cache.parseDouble("1.2.3")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> cache.parseDouble("1.2.3")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void parseDouble_ManyThreads() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        results.add(executor.submit(() -> {
+          for (int i = 0; i < 100000; i++) {
+            int n = i % 2000;
+            if (cache.parseDouble(n + ".25") != n + 0.25) return false;
+          }
+          return true;
+        }));
+      }
+      for (Future<Boolean> result : results) assertThat(result.get()).isTrue();
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(cache.hitCount() + cache.missCount()).isEqualTo(400000);
+  }
+}
@@ -0,0 +1,100 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ParserStatsTest {
+  private final Parser parser = new Parser();
+
+  @Before
+  public void setUp() {
+    ParserStats.reset();
+  }
+
+  @After
+  public void tearDown() {
+    ParserStats.disable();
+    ParserStats.reset();
+  }
+
+  @Test
+  public void disabled_CountsNothing() {
+    parser.parseDouble("1.5");
+    assertThat(ParserStats.count(ParserStats.Path.CLINGER)).isEqualTo(0);
+  }
+
+  @Test
+  public void count_ByPath() {
+    ParserStats.enable(Long.MAX_VALUE);
+    parser.parseDouble("1.5");
+    parser.parseFloat("2.5");
+    parser.parseDouble("1e400");
+    parser.parseDouble("1.2345678901234567e-300");
+    parser.parseDouble("2.47032822920623272088284396434110686182529901307162382212792841250337753635104375932649918180817996189898282347722858865463328355177969898199387398005390939063150356595155702263922908583924491051844359318028499365361525003193704576782492193656236698636584807570015857692699037063119282795585513329278343384093519780155312465972635795746227664652728272200563740064854999770965994704540208281662262378573934507363390079677619305775067401763246736009689513405355374585166611342237666786041621596804619144672918403005300575308490487653917113865916462395249126236538818796362393732804238910186723484976682350898633885879256283027559956575244555072551893136908362547791869486679949683240497058210285131854513962138377228261454376934125320985913276672363281251e-324");
+    parser.parseDouble("0x1p3");
+    parser.parseFloat("1.00000005960464477550");
+    parser.parseDouble("1.5", 0, 3);
+    assertThatThrownBy(() -> parser.parseDouble("1.5x")).isInstanceOf(IllegalArgumentException.class);
+    assertThat(ParserStats.count(ParserStats.Path.CLINGER)).isEqualTo(3);
+    assertThat(ParserStats.count(ParserStats.Path.EARLY_OUT)).isEqualTo(1);
+    assertThat(ParserStats.count(ParserStats.Path.EISEL_LEMIRE)).isEqualTo(1);
+    assertThat(ParserStats.count(ParserStats.Path.DIGIT_COMPARISON)).isEqualTo(2);
+    assertThat(ParserStats.count(ParserStats.Path.HEX)).isEqualTo(1);
+    assertThat(ParserStats.subnormalCount()).isEqualTo(1);
+    long[] digits = ParserStats.digitHistogram();
+    assertThat(digits).hasSize(21);
+    assertThat(digits[2]).isEqualTo(3);
+    assertThat(digits[1]).isEqualTo(1);
+    assertThat(digits[17]).isEqualTo(1);
+    assertThat(digits[20]).isEqualTo(2);
+  }
+
+  @Test
+  public void stepHistogram_BigNumber() {
+    ParserStats.enable(Long.MAX_VALUE);
+    parser.parseDouble("0x1.8p1_0");
+    assertThat(ParserStats.count(ParserStats.Path.HEX)).isEqualTo(1);
+    assertThat(ParserStats.stepHistogram()[1]).isEqualTo(1);
+    assertThat(ParserStats.digitHistogram()).containsOnly(0);
+  }
+
+  @Test
+  public void enable_NegativeThreshold() {
+    assertThatThrownBy(() -> ParserStats.enable(-1)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void slowParse_RecordedByFlightRecorder() throws Exception {
+    Path file = Files.createTempFile("parser", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("Parser.SlowParse");
+      recording.start();
+      ParserStats.enable(0);
+      parser.parseDouble("3.14159");
+      parser.parseFloat("0x1p-200");
+      ParserStats.disable();
+      parser.parseDouble("2.5");
+      recording.stop();
+      recording.dump(file);
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+          .filter(e -> e.getEventType().getName().equals("Parser.SlowParse"))
+          .collect(Collectors.toList());
+      assertThat(events).hasSize(2);
+      assertThat(events.get(0).getInt("length")).isEqualTo(7);
+      assertThat(events.get(0).getString("type")).isEqualTo("double");
+      assertThat(events.get(0).getString("path")).isEqualTo("CLINGER");
+      assertThat(events.get(1).getString("path")).isEqualTo("HEX");
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
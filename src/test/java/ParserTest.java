@@ -4,6 +4,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @RunWith(JUnitParamsRunner.class)
 public class ParserTest {
@@ -399,4 +400,208 @@ public class ParserTest {
     var text = "1.098612288668109691395245236922525704647490557822749451734694333637494293218608966873615754813732088787970029065957865742368004225930519821052801870767277410603162769183381367179373698844360959903742570316795911521145591917750671347054940166775580222203170252946897560690106521505642868138036317373298577782361";
     assertThat(parser.parseDouble(text)).isEqualTo(1.0986122886681098d);
   }
+
+  @Test
+  public void parseDouble_CharSequenceSlice() {
+    var text = new StringBuilder("[3.14159,-0x1.8p1]");
+    assertThat(parser.parseDouble(text, 1, 8)).isEqualTo(3.14159);
+    assertThat(parser.parseDouble(text, 9, 17)).isEqualTo(-3);
+  }
+
+  @Test
+  public void parseDouble_CharArraySlice() {
+    var text = "1.5,1.0000000000000001110223024625156540423631668090820312500001".toCharArray();
+    assertThat(parser.parseDouble(text, 0, 3)).isEqualTo(1.5);
+    assertThat(parser.parseDouble(text, 4, text.length)).isEqualTo(1.0000000000000002);
+  }
+
+  @Test
+  public void parseDouble_AsciiSlice() {
+    var text = "x=2.5e-3;y=1e23".getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+    assertThat(parser.parseDouble(text, 2, 8)).isEqualTo(2.5e-3);
+    assertThat(parser.parseDouble(text, 11, text.length)).isEqualTo(1e23);
+  }
+
+  @Test
+  public void parseFloat_AsciiSlice() {
+    var text = "{1.000000059604644775390626}".getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+    assertThat(parser.parseFloat(text, 1, text.length - 1)).isEqualTo(1.0000001f);
+  }
+
+  @Test
+  public void parseDouble_KnownBoundaries() {
+    byte[] ascii = "x-12.5e-1_".getBytes(java.nio.charset.StandardCharsets.ISO_8859_1);
+    assertThat(parser.parseDouble(ascii, 1, 9, 4, 6)).isEqualTo(-1.25);
+    assertThat(parser.parseFloat(ascii, 1, 9, 4, 6)).isEqualTo(-1.25f);
+    assertThat(parser.parseDouble(ascii, 2, 4, -1, -1)).isEqualTo(12);
+  }
+
+  @Test
+  public void parseFloat_CharArraySlice() {
+    var text = "0x1p-100;".toCharArray();
+    assertThat(parser.parseFloat(text, 0, 8)).isEqualTo(7.888609e-31f);
+  }
+
+  @Test
+  public void parseDouble_HalfwayWithLongTail() {
+    // 2.5 * 2^-1074 has 751 significant digits
+    var halfway = new java.math.BigDecimal(Double.MIN_VALUE).multiply(new java.math.BigDecimal("2.5")).toPlainString();
+    var zeros = "0".repeat(1000);
+    assertThat(parser.parseDouble(halfway + zeros)).isEqualTo(2 * Double.MIN_VALUE);
+    assertThat(parser.parseDouble(halfway + zeros + "1")).isEqualTo(3 * Double.MIN_VALUE);
+  }
+
+  @Test
+  public void parseFloat_HalfwayWithLongTail() {
+    var halfway = "1.000000059604644775390625";
+    var zeros = "0".repeat(1000);
+    assertThat(parser.parseFloat(halfway + zeros)).isEqualTo(1.0f);
+    assertThat(parser.parseFloat(halfway + zeros + "1")).isEqualTo(Math.nextUp(1.0f));
+    assertThat(parser.parseFloat("-" + halfway + zeros + "1e-10")).isEqualTo(-1.0000001e-10f);
+  }
+
+  @Test
+  public void parseDouble_OutOfRange() {
+    assertThat(parser.parseDouble("1e99999999999999999999")).isEqualTo(Double.POSITIVE_INFINITY);
+    assertThat(parser.parseDouble("-1e-99999999999999999999")).isEqualTo(-0.0);
+    assertThat(parser.parseDouble("0e99999999999999999999")).isEqualTo(0.0);
+    assertThat(parser.parseDouble("0x1p99999999999999999999")).isEqualTo(Double.POSITIVE_INFINITY);
+    assertThat(parser.parseDouble("-0x1p-99999999999999999999")).isEqualTo(-0.0);
+    assertThat(parser.parseDouble("0x0p99999999999999999999")).isEqualTo(0.0);
+  }
+
+  @Test
+  public void parseDouble_LargeExponentWithLongFraction() {
+    assertThat(parser.parseDouble("0." + "0".repeat(200000) + "15e200001")).isEqualTo(1.5);
+    assertThat(parser.parseDouble("0x0." + "0".repeat(30000) + "18p120004")).isEqualTo(1.5);
+  }
+
+  @Test
+  public void parseDouble_HexAroundSmallestSubnormal() {
+    assertThat(parser.parseDouble("0x1p-1075")).isEqualTo(0.0);
+    assertThat(parser.parseDouble("0x1.000000001p-1075")).isEqualTo(Double.MIN_VALUE);
+    assertThat(parser.parseDouble("-0x1.fp-1075")).isEqualTo(-Double.MIN_VALUE);
+    assertThat(parser.parseDouble("0x1.fp-1076")).isEqualTo(0.0);
+  }
+
+  @Test
+  public void parseFloat_OutOfRange() {
+    assertThat(parser.parseFloat("1e39")).isEqualTo(Float.POSITIVE_INFINITY);
+    assertThat(parser.parseFloat("-1e-47")).isEqualTo(-0.0f);
+    assertThat(parser.parseFloat("0x1p128")).isEqualTo(Float.POSITIVE_INFINITY);
+    assertThat(parser.parseFloat("0x1p-150")).isEqualTo(0.0f);
+    assertThat(parser.parseFloat("0x1.8p-150")).isEqualTo(Float.MIN_VALUE);
+  }
+
+  @Test
+  public void parseDouble_JavaGrammar() {
+    assertThat(parser.parseDouble(" 1.5f ")).isEqualTo(1.5);
+    assertThat(parser.parseDouble("2d")).isEqualTo(2.0);
+    assertThat(parser.parseDouble("1e5F")).isEqualTo(1e5);
+    assertThat(parser.parseDouble(".5")).isEqualTo(0.5);
+    assertThat(parser.parseDouble("-0X1P3")).isEqualTo(-8.0);
+    assertThat(parser.parseDouble("\t0x1.8p1D\n")).isEqualTo(3.0);
+    assertThat(parser.parseDouble("NaN")).isNaN();
+    assertThat(parser.parseDouble("-Infinity")).isEqualTo(Double.NEGATIVE_INFINITY);
+    assertThat(parser.parseDouble("+Infinity")).isEqualTo(Double.POSITIVE_INFINITY);
+    assertThat(parser.parseDouble(" 1." + "0".repeat(30) + "1e-320d")).isEqualTo(1e-320);
+    assertThatThrownBy(() -> parser.parseDouble("1.5f0")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> parser.parseDouble("nan")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> parser.parseDouble("Inf")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> parser.parseDouble("0x\uFF11p0")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void parseFloat_JavaGrammar() {
+    assertThat(parser.parseFloat(" 1.5f ")).isEqualTo(1.5f);
+    assertThat(parser.parseFloat("-0x1p-150f")).isEqualTo(-0.0f);
+    assertThat(parser.parseFloat("NaN")).isNaN();
+    assertThat(parser.parseFloat("-Infinity")).isEqualTo(Float.NEGATIVE_INFINITY);
+    assertThat(parser.parseFloat("3.4028236e38d")).isEqualTo(Float.POSITIVE_INFINITY);
+  }
+
+  @Test
+  @Parameters({
+      "1.5, 0, -1, 1.5",
+      " -0x1p-2d , 0, -1, -0.25",
+      "-Infinity, 0, -1, -Infinity",
+      "1e400, 0, -1, Infinity",
+      ", 3, 0, 0",
+      "1.2.3, 3, 3, 0",
+      "1e, 3, 2, 0",
+      "12a4, 3, 2, 0",
+      "0x, 3, 2, 0",
+      "1.5f 2, 3, 5, 0",
+      "--1, 3, 1, 0",
+  })
+  public void tryParseDouble(String input, int status, int errorOffset, double expected) {
+    var result = new ParseResult();
+    assertThat(parser.tryParseDouble(input, 0, input.length(), result)).isEqualTo(status);
+    assertThat(result.status()).isEqualTo(status);
+    assertThat(result.errorOffset()).isEqualTo(errorOffset);
+    if (status == ParseResult.OK) assertThat(result.doubleValue()).isEqualTo(expected);
+  }
+
+  @Test
+  public void tryParseFloat() {
+    var result = new ParseResult();
+    char[] chars = "x 3.4028236e38 1.0000000596046448f y".toCharArray();
+    assertThat(parser.tryParseFloat(chars, 1, 14, result)).isEqualTo(ParseResult.OK);
+    assertThat(result.floatValue()).isEqualTo(Float.POSITIVE_INFINITY);
+    assertThat(parser.tryParseFloat(chars, 15, 34, result)).isEqualTo(ParseResult.OK);
+    assertThat(result.floatValue()).isEqualTo(1.0000001f);
+    assertThat(parser.tryParseFloat(chars, 14, 36, result)).isEqualTo(ParseResult.MALFORMED);
+    assertThat(result.errorOffset()).isEqualTo(35);
+    byte[] ascii = "NaN,0.1".getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+    assertThat(parser.tryParseFloat(ascii, 0, 3, result)).isEqualTo(ParseResult.OK);
+    assertThat(result.floatValue()).isNaN();
+    assertThat(parser.tryParseFloat(ascii, 0, ascii.length, result)).isEqualTo(ParseResult.MALFORMED);
+    assertThat(result.errorOffset()).isEqualTo(3);
+    assertThat(parser.tryParseFloat(ascii, 4, ascii.length, result)).isEqualTo(ParseResult.OK);
+    assertThat(result.floatValue()).isEqualTo(0.1f);
+    assertThat(result.errorOffset()).isEqualTo(-1);
+  }
+
+  @Test
+  @Parameters({
+      "123.45, 2, 0, 12345",
+      "-123.45, 4, 0, -1234500",
+      "1.5e3, 0, 0, 1500",
+      "12_345e-2, 1, 2, 1234",
+      "0.00, 2, 0, 0",
+      "-0.001, 2, 2, 0",
+      "1.005, 2, 2, 100",
+      "-1.999, 0, 2, -1",
+      "1e-30, 2, 2, 0",
+      "12345, -3, 2, 12",
+      "9223372036854775807, 0, 0, 9223372036854775807",
+      "-9223372036854775808, 0, 0, -9223372036854775808",
+      "9223372036854775808, 0, 1, 0",
+      "92233720368547758.08, 2, 1, 0",
+      "-92233720368547758.08, 2, 0, -9223372036854775808",
+      "1e19, 0, 1, 0",
+      "1e400, 2, 1, 0",
+      "0e400, 2, 0, 0",
+      "1.0000000000000000000000001, 2, 2, 100",
+      "0x1p3, 0, 3, 0",
+      "1.2.3, 0, 3, 0",
+  })
+  public void parseScaledLong(String input, int scale, int status, long expected) {
+    var result = new ParseResult();
+    assertThat(parser.parseScaledLong(input, 0, input.length(), scale, result)).isEqualTo(status);
+    assertThat(result.status()).isEqualTo(status);
+    if (status != ParseResult.OVERFLOW && status != ParseResult.MALFORMED) {
+      assertThat(result.longValue()).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  public void parseScaledLong_Throws() {
+    assertThat(parser.parseScaledLong("-42.50", 2)).isEqualTo(-4250);
+    assertThatThrownBy(() -> parser.parseScaledLong("42.505", 2)).isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("fraction digits");
+    assertThatThrownBy(() -> parser.parseScaledLong("1e17", 2)).isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("range");
+    assertThatThrownBy(() -> parser.parseScaledLong("4x", 2)).isInstanceOf(IllegalArgumentException.class);
+  }
 }
@@ -0,0 +1,117 @@
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StreamingParserTest {
+  private final List<Double> values = new ArrayList<>();
+  private final StreamingParser parser = new StreamingParser(values::add);
+
+  private static ByteBuffer chunk(String s) {
+    return ByteBuffer.wrap(s.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  public void feed_SplitNumbers() {
+    parser.feed(chunk("1.5,-2."));
+    parser.feed(chunk("25e"));
+    parser.feed(chunk("1\n0x1p"));
+    parser.feed(chunk("-1"));
+    parser.finish();
+    assertThat(values).containsExactly(1.5, -22.5, 0.5);
+  }
+
+  @Test
+  public void feed_LongNumberInSingleBytes() {
+    var text = "1.00000000000000011102230246251565404236316680908203125000000000000000000000001\n";
+    for (int i = 0; i < text.length(); i++) {
+      parser.feed(chunk(text.substring(i, i + 1)));
+    }
+    assertThat(values).containsExactly(1.0000000000000002);
+  }
+
+  // Feeds s with n copies of run in the middle, in 64KB chunks
+  private void feedWithRun(String head, char run, int n, String tail) {
+    parser.feed(chunk(head));
+    byte[] block = new byte[1 << 16];
+    java.util.Arrays.fill(block, (byte) run);
+    for (int i = 0; i < n; i += block.length) parser.feed(ByteBuffer.wrap(block, 0, Math.min(block.length, n - i)));
+    parser.feed(chunk(tail));
+  }
+
+  @Test
+  public void feed_MegabytesOfDigits() {
+    feedWithRun("1", '0', 4_000_000, "e-4000000,");
+    feedWithRun("-0.", '0', 3_000_000, "15e3000001,");
+    feedWithRun("2.", '3', 3_000_000, "\n");
+    feedWithRun("1.00000000000000011102230246251565404236316680908203125", '0', 2_000_000, "1,");
+    feedWithRun("1.00000000000000011102230246251565404236316680908203125", '0', 2_000_000, ",");
+    feedWithRun("0x1", '0', 2_000_000, "p-8000000,");
+    feedWithRun("+", '7', 2_000_000, "e-2000000f,");
+    feedWithRun("", '9', 2_000_000, "");
+    parser.finish();
+    assertThat(values).containsExactly(1.0, -1.5, 2.3333333333333335, 1.0000000000000002, 1.0, 1.0, 0.7777777777777778,
+        Double.POSITIVE_INFINITY);
+  }
+
+  @Test
+  public void feed_MegabytesOfDigits_Malformed() {
+    parser.feed(chunk("1,"));
+    feedWithRun("2", '5', 2_000_000, "..5");
+    assertThatThrownBy(() -> parser.feed(chunk(",")))
+        .isInstanceOf(BulkParseException.class)
+        .hasMessage("Malformed number at byte offset 2");
+    parser.feed(chunk("3,"));
+    feedWithRun("4", '4', 2_000_000, "e");
+    assertThatThrownBy(() -> parser.finish()).isInstanceOf(BulkParseException.class);
+    assertThat(values).containsExactly(1.0, 3.0);
+  }
+
+  @Test
+  public void feed_LongNumbersAgreeWithParser() {
+    String digits = "1".repeat(2000);
+    String[] inputs = {
+        digits + "\f", "\u000b" + digits, digits + "\u000b", digits + "e_+1",
+        "-" + "0".repeat(2000) + "x1p3", "\f".repeat(2000) + "-Infinity", digits + "e+",
+    };
+    for (String input : inputs) {
+      Object expected;
+      try {
+        expected = new Parser().parseDouble(input);
+      } catch (IllegalArgumentException e) {
+        expected = "malformed";
+      }
+      values.clear();
+      Object actual;
+      try {
+        parser.feed(chunk(input));
+        parser.finish();
+        actual = values.get(0);
+      } catch (BulkParseException e) {
+        actual = "malformed";
+      }
+      assertThat(actual).as(input.substring(input.length() - 5)).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  public void finish_NothingPending() {
+    parser.feed(chunk("42\n"));
+    parser.finish();
+    assertThat(values).containsExactly(42.0);
+  }
+
+  @Test
+  public void feed_Malformed_ReportsOffset() {
+    parser.feed(chunk("1,2,"));
+    assertThatThrownBy(() -> parser.feed(chunk("3..5,")))
+        .isInstanceOf(BulkParseException.class)
+        .hasMessage("Malformed number at byte offset 4");
+    assertThat(values).containsExactly(1.0, 2.0);
+  }
+}
@@ -0,0 +1,48 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link BoundaryScanner} that classifies 64 bytes with a few SIMD comparisons.  This class refers
+ * to the incubating jdk.incubator.vector module, so it must only be loaded through
+ * {@link BoundaryScanner#create()}, which checks that the module is available.
+ */
+final class VectorBoundaryScanner extends BoundaryScanner {
+  private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+  // The bits of a mask that are in use
+  private static final long LANES = SPECIES.length() == 64 ? -1L : (1L << SPECIES.length()) - 1;
+  // The 64-byte window must be a whole number of vectors, which it is not for e.g. 384-bit or
+  // 1024-bit SVE.  Masks over 64 lanes would not fit in a long either.  Checked by BoundaryScanner.
+  static final boolean SUPPORTED = 64 % SPECIES.length() == 0;
+
+  @Override void classify(byte[] bytes, int i, int n) {
+    if (n < 64) {
+      super.classify(bytes, i, n);
+      return;
+    }
+    long d = 0;
+    long p = 0;
+    long m = 0;
+    long s = 0;
+    long o = 0;
+    for (int k = 0; k < 64; k += SPECIES.length()) {
+      ByteVector v = ByteVector.fromArray(SPECIES, bytes, i + k);
+      long delimiter = v.eq((byte) '\n').or(v.eq((byte) '\r')).or(v.eq((byte) ','))
+          .or(v.eq((byte) ' ')).or(v.eq((byte) '\t')).toLong();
+      long point = v.eq((byte) '.').toLong();
+      long marker = v.eq((byte) 'e').or(v.eq((byte) 'E')).toLong();
+      long sign = v.eq((byte) '-').or(v.eq((byte) '+')).toLong();
+      long digit = v.compare(VectorOperators.GE, (byte) '0').and(v.compare(VectorOperators.LE, (byte) '9')).toLong();
+      d |= delimiter << k;
+      p |= point << k;
+      m |= marker << k;
+      s |= sign << k;
+      o |= (~(delimiter | point | marker | sign | digit) & LANES) << k;
+    }
+    delimiters = d;
+    points = p;
+    markers = m;
+    signs = s;
+    others = o;
+  }
+}